@@ -0,0 +1,44 @@
+#!/bin/sh
+#
+# Builds the game into out/ and runs the checks in test/.
+#
+#   ./build.sh           builds src/ only, with no incubator modules
+#   ./build.sh --vector  also builds the vector density kernel in vector/, which needs jdk.incubator.vector; run the
+#                        game with java --add-modules jdk.incubator.vector -cp out ... to use it
+#
+# Each check is a class in test/ whose name ends in Test, run with java; it exits non-zero if a check fails.
+
+set -e
+
+cd "$(dirname "$0")"
+
+OUT=out
+MODULES=""
+SOURCES=$(find src -name '*.java')
+
+if [ "$1" = "--vector" ]; then
+
+    MODULES="--add-modules jdk.incubator.vector"
+    SOURCES="$SOURCES $(find vector -name '*.java')"
+
+fi
+
+rm -rf "$OUT"
+mkdir -p "$OUT/main" "$OUT/test"
+
+javac $MODULES -d "$OUT/main" $SOURCES
+
+TESTS=$(find test -name '*.java' 2>/dev/null || true)
+
+if [ -n "$TESTS" ]; then
+
+    javac -cp "$OUT/main" -d "$OUT/test" $TESTS
+
+    for test in $(cd test && find . -name '*Test.java' | sed 's|^\./||; s|\.java$||; s|/|.|g'); do
+
+        echo "Running $test"
+        java $MODULES -cp "$OUT/main:$OUT/test" "$test"
+
+    done
+
+fi
@@ -0,0 +1,314 @@
+package classes;
+
+import enums.GameStatus;
+import enums.ShotStatus;
+import enums.TimeoutPolicy;
+import exceptions.PauseException;
+import interfaces.AsyncPlayerInterface;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+import interfaces.ShipInterface;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A game between two asynchronous players, played by a GameEngine under the same rules as Game. No thread waits while a
+ * player thinks: each move is asked for as a future, and the game carries on from whichever thread completes it. Moves
+ * that are answered at once are played in a loop rather than by nesting callbacks, so a game between quick players runs
+ * on the thread that started it.
+ *
+ * Each player sits behind a seat that the engine sees as an ordinary player. A seat whose move is not yet answered
+ * pauses the engine, which leaves the game as it was, and the engine is asked to move on again once the answer comes.
+ *
+ * With a chess clock, each request is given the mover's remaining time, after which the shared timer of
+ * CompletableFuture gives up on it and the timeout policy decides: the game moves at random for the player, or the
+ * player forfeits. A player that has run out of time under RANDOM_SHOT is not asked again.
+ */
+public class AsyncGame {
+
+    /**
+     * Thrown by a seat to pause the engine while its player's move is not yet answered
+     */
+    private static final PauseException WAITING = new PauseException("Waiting for a move", false);
+
+    private final Seat[] seats;
+    private final GameEngine engine;
+    private final ChessClock clock;
+    private final TimeoutPolicy policy;
+    private final Random random;
+    private final PlacementSampler placer;
+
+    private final CompletableFuture<AsyncPlayerInterface> result = new CompletableFuture<>();
+
+    /**
+     * @param clock The time controls, or null for none
+     * @param policy What to do when a player runs out of time
+     */
+    public AsyncGame(AsyncPlayerInterface player1, AsyncPlayerInterface player2, ChessClock clock, TimeoutPolicy policy) {
+        this(player1, player2, BoardSize.STANDARD, Game.FLEET, BitBoard::new, clock, policy, new Random());
+    }
+
+    /**
+     * @param size The dimensions of both boards
+     * @param fleet The lengths of the ships each player places, in the order they are placed
+     * @param boardFactory Creates the boards
+     * @param clock The time controls, or null for none
+     * @param policy What to do when a player runs out of time
+     * @param random The source of the moves made for players out of time
+     */
+    AsyncGame(AsyncPlayerInterface player1, AsyncPlayerInterface player2, BoardSize size, int[] fleet,
+              Function<BoardSize, BoardInterface> boardFactory, ChessClock clock, TimeoutPolicy policy, Random random) {
+
+        this.seats = new Seat[]{new Seat(0, player1, size), new Seat(1, player2, size)};
+        this.engine = new GameEngine(this.seats[0], this.seats[1], boardFactory.apply(size), boardFactory.apply(size), fleet, 0, null);
+        this.clock = clock;
+        this.policy = policy;
+        this.random = random;
+        this.placer = new PlacementSampler(random);
+
+    }
+
+    /**
+     * Starts the game. It must only be called once.
+     *
+     * @return a future completed with the winning player, or with null if a player paused the game. A player that
+     * places a ship or shoots illegally, or whose move fails, forfeits the game.
+     */
+    public CompletableFuture<AsyncPlayerInterface> play() {
+
+        this.advance();
+
+        return this.result;
+
+    }
+
+    /**
+     * Plays moves until one is not yet answered, arranging for the game to continue when it is
+     */
+    private void advance() {
+
+        try {
+
+            GameStatus status = this.engine.step();
+
+            while (status == GameStatus.IN_PROGRESS) {
+
+                status = this.engine.step();
+
+            }
+
+            for (Seat seat: this.seats) {
+
+                if (seat.pending != null) {
+
+                    seat.pending.whenComplete((move, e) -> this.advance());
+
+                    return;
+
+                }
+
+            }
+
+            PlayerInterface winner = this.engine.getResult().getWinner();
+
+            this.result.complete(status == GameStatus.PAUSED || winner == null ? null : ((Seat) winner).player);
+
+        } catch (RuntimeException e) {
+
+            this.result.completeExceptionally(e);
+
+        }
+
+    }
+
+    /**
+     * @return the number of shots taken so far
+     */
+    int getTurns() {
+        return this.engine.getResult().getTurns();
+    }
+
+    /**
+     * Stands in for an asynchronous player in the engine, asking them for each move and answering the engine once the
+     * move is known
+     */
+    private class Seat implements PlayerInterface {
+
+        private final int index;
+        private final AsyncPlayerInterface player;
+        private final BoardSize size;
+
+        /**
+         * The cells the player has shot at, one bit per cell
+         */
+        private final long[] fired;
+
+        /**
+         * The move asked for and not yet played, or null
+         */
+        private CompletableFuture<?> pending;
+
+        Seat(int index, AsyncPlayerInterface player, BoardSize size) {
+
+            this.index = index;
+            this.player = player;
+            this.size = size;
+            this.fired = new long[(size.getCells() + 63) >>> 6];
+
+        }
+
+        /**
+         * The board is only valid during the call, so the player is given a clone of it
+         */
+        public Placement choosePlacement(ShipInterface ship, BoardInterface board) throws PauseException {
+
+            return this.move(() -> this.player.choosePlacement(ship, board.clone()), () -> AsyncGame.this.placer.choose(ship, board));
+
+        }
+
+        public Position chooseShot() throws PauseException {
+            return this.move(this.player::chooseShot, this::randomShot);
+        }
+
+        public void shotResult(Position position, ShotStatus status) {
+
+            int cell = this.size.index(position);
+
+            this.fired[cell >>> 6] |= 1L << cell;
+            this.player.shotResult(position, status);
+
+        }
+
+        public void opponentShot(Position position) {
+            this.player.opponentShot(position);
+        }
+
+        @Override
+        public String toString() {
+            return this.player.toString();
+        }
+
+        /**
+         * The first time it is called for a move, asks the player for it, starting their clock; if the answer is not
+         * yet known, pauses the engine until it is. Once it is known, stops the clock and returns it.
+         *
+         * @param request Asks the player for the move
+         * @param random Makes a random move in its place
+         *
+         * @return the move, a random move if the player ran out of time under RANDOM_SHOT, or null if the player is to
+         * forfeit
+         *
+         * @throws PauseException if the move is not yet answered, or the player paused the game
+         */
+        @SuppressWarnings("unchecked")
+        private <T> T move(Supplier<CompletableFuture<T>> request, Supplier<T> random) throws PauseException {
+
+            if (this.pending == null) {
+
+                this.pending = this.request(request);
+
+                if (!this.pending.isDone()) throw WAITING;
+
+            }
+
+            CompletableFuture<?> answer = this.pending;
+            boolean inTime = AsyncGame.this.clock == null || AsyncGame.this.clock.stop();
+            T move = null;
+            Throwable cause = null;
+
+            this.pending = null;
+
+            try {
+
+                move = (T) answer.join();
+
+            } catch (CompletionException | CancellationException e) {
+
+                cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+            }
+
+            if (cause instanceof PauseException) throw (PauseException) cause;
+
+            if (cause instanceof TimeoutException || !inTime) {
+
+                if (AsyncGame.this.policy == TimeoutPolicy.FORFEIT) return null;
+
+                if (move == null) move = random.get();
+
+            }
+
+            return move;
+
+        }
+
+        /**
+         * Asks the player for a move and starts their clock, giving them as long as they have left
+         */
+        private CompletableFuture<?> request(Supplier<? extends CompletableFuture<?>> request) {
+
+            ChessClock clock = AsyncGame.this.clock;
+
+            if (clock != null) {
+
+                boolean flagged = clock.isFlagged(this.index);
+
+                clock.start(this.index);
+
+                if (flagged) return CompletableFuture.failedFuture(new TimeoutException());
+
+            }
+
+            CompletableFuture<?> move;
+
+            try {
+
+                move = request.get();
+
+            } catch (RuntimeException e) {
+
+                move = CompletableFuture.failedFuture(e);
+
+            }
+
+            return clock == null ? move : move.orTimeout(Math.max(clock.getRemaining(this.index), 0), TimeUnit.NANOSECONDS);
+
+        }
+
+        /**
+         * @return a random cell the player has not yet shot at, or null if there is none
+         */
+        private Position randomShot() {
+
+            int open = this.size.getCells();
+
+            for (long word: this.fired) {
+
+                open -= Long.bitCount(word);
+
+            }
+
+            if (open == 0) return null;
+
+            int k = AsyncGame.this.random.nextInt(open);
+
+            for (int c = 0; c < this.size.getCells(); c++) {
+
+                if ((this.fired[c >>> 6] & (1L << c)) == 0 && k-- == 0) return this.size.position(c);
+
+            }
+
+            return null;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package classes;
+
+import enums.ShotStatus;
+import exceptions.PauseException;
+import interfaces.AsyncPlayerInterface;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+import interfaces.ShipInterface;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Lets a PlayerInterface take part in an asynchronous game. Every call is run on an executor, one at a time and in the
+ * order the game made them, so the player never sees two calls at once, even when the game has stopped waiting for a
+ * shot that is still being chosen. A PauseException thrown by the player completes its future exceptionally.
+ */
+public class AsyncPlayerAdapter implements AsyncPlayerInterface {
+
+    /**
+     * The executor used when none is given: a thread per processor, that does not keep the program running. Calls
+     * beyond that wait their turn, and since each adapter makes one call at a time, at most one call per adapter waits.
+     */
+    private static final ExecutorService SHARED = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+
+        Thread thread = new Thread(runnable, "async-player");
+
+        thread.setDaemon(true);
+
+        return thread;
+
+    });
+
+    private final PlayerInterface player;
+    private final Executor executor;
+
+    /**
+     * Completes once every call made so far has returned
+     */
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    public AsyncPlayerAdapter(PlayerInterface player) {
+        this(player, SHARED);
+    }
+
+    /**
+     * @param player The player to adapt
+     * @param executor Runs the player's calls, e.g. a small pool shared by many computer players, or a direct executor
+     * for players that answer at once
+     */
+    public AsyncPlayerAdapter(PlayerInterface player, Executor executor) {
+
+        this.player = player;
+        this.executor = executor;
+
+    }
+
+    /**
+     * @return the player, adapted if it is not already asynchronous
+     */
+    public static AsyncPlayerInterface of(PlayerInterface player) {
+        return player instanceof AsyncPlayerInterface ? (AsyncPlayerInterface) player : new AsyncPlayerAdapter(player);
+    }
+
+    public CompletableFuture<Placement> choosePlacement(ShipInterface ship, BoardInterface board) {
+
+        return this.enqueue(() -> {
+
+            try {
+
+                return this.player.choosePlacement(ship, board);
+
+            } catch (PauseException e) {
+
+                throw new CompletionException(e);
+
+            }
+
+        });
+
+    }
+
+    public CompletableFuture<Position> chooseShot() {
+
+        return this.enqueue(() -> {
+
+            try {
+
+                return this.player.chooseShot();
+
+            } catch (PauseException e) {
+
+                throw new CompletionException(e);
+
+            }
+
+        });
+
+    }
+
+    public void shotResult(Position position, ShotStatus status) {
+
+        this.enqueue(() -> {
+
+            this.player.shotResult(position, status);
+
+            return null;
+
+        });
+
+    }
+
+    public void opponentShot(Position position) {
+
+        this.enqueue(() -> {
+
+            this.player.opponentShot(position);
+
+            return null;
+
+        });
+
+    }
+
+    /**
+     * @return the adapted player
+     */
+    public PlayerInterface getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Runs a call once every earlier call has returned, whether or not they succeeded
+     *
+     * @return a copy of the call's future, so that a game giving up on it does not let the next call start early
+     */
+    private synchronized <T> CompletableFuture<T> enqueue(Supplier<T> call) {
+
+        CompletableFuture<T> future = this.tail.handle((result, e) -> (Void) null).thenApplyAsync(v -> call.get(), this.executor);
+
+        this.tail = future;
+
+        return future.copy();
+
+    }
+
+    @Override
+    public String toString() {
+        return this.player.toString();
+    }
+
+}
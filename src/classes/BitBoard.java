@@ -0,0 +1,311 @@
+package classes;
+
+import enums.ShipStatus;
+import enums.ShotStatus;
+import exceptions.InvalidPositionException;
+import exceptions.ShipOverlapException;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A board that keeps occupied, hit and sunk cells as 128-bit bitboards (a low and a high long covering the 100 cells
+ * of the grid), plus a mask per ship. Overlap checks are a single AND, and shots are resolved with a handful of bit
+ * operations rather than a walk over the fleet.
+ *
+ * Cell i is (x, y) = (i % 10 + 1, i / 10 + 1); cells 0-63 live in the low word and cells 64-99 in the high word.
+ */
+public class BitBoard implements BoardInterface {
+
+    private long occupiedLow, occupiedHigh, hitLow, hitHigh, sunkLow, sunkHigh;
+
+    private long[] shipLow = new long[5], shipHigh = new long[5];
+    private int[] origins = new int[5];
+    private boolean[] verticals = new boolean[5];
+    private ShipInterface[] ships = new ShipInterface[5];
+
+    /**
+     * The index (plus one) of the ship occupying each cell, or 0 if the cell is empty
+     */
+    private byte[] owners = new byte[100];
+    private int count = 0;
+
+    public BitBoard() {}
+
+    /**
+     * @param size The dimensions of the board, which must be the standard 10x10
+     *
+     * @throws IllegalArgumentException if the size is not 10x10
+     */
+    public BitBoard(BoardSize size) {
+
+        if (!size.equals(BoardSize.STANDARD)) throw new IllegalArgumentException("BitBoard is 10x10 only, not " + size);
+
+    }
+
+    private static long low(int cell) {
+        return cell < 64 ? 1L << cell : 0L;
+    }
+
+    private static long high(int cell) {
+        return cell < 64 ? 0L : 1L << (cell - 64);
+    }
+
+    public void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException {
+
+        BoardSize.STANDARD.validate(position, ship.getSize(), isVertical);
+
+        int origin = BoardSize.STANDARD.index(position), step = isVertical ? 10 : 1;
+        long maskLow = 0L, maskHigh = 0L;
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            maskLow |= BitBoard.low(origin + i * step);
+            maskHigh |= BitBoard.high(origin + i * step);
+
+        }
+
+        long overlapLow = maskLow & this.occupiedLow, overlapHigh = maskHigh & this.occupiedHigh;
+
+        if ((overlapLow | overlapHigh) != 0) {
+
+            int c = overlapLow != 0 ? Long.numberOfTrailingZeros(overlapLow) : 64 + Long.numberOfTrailingZeros(overlapHigh);
+
+            throw new ShipOverlapException("(" + (c % 10 + 1) + ", " + (c / 10 + 1) + ")", false);
+
+        }
+
+        if (this.count == this.ships.length) {
+
+            this.shipLow = Arrays.copyOf(this.shipLow, this.count * 2);
+            this.shipHigh = Arrays.copyOf(this.shipHigh, this.count * 2);
+            this.origins = Arrays.copyOf(this.origins, this.count * 2);
+            this.verticals = Arrays.copyOf(this.verticals, this.count * 2);
+            this.ships = Arrays.copyOf(this.ships, this.count * 2);
+
+        }
+
+        // Ships loaded from a save may already have been shot
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            ShipStatus status = ship.getStatus(i);
+
+            if (status == ShipStatus.HIT || status == ShipStatus.SUNK) {
+
+                this.hitLow |= BitBoard.low(origin + i * step);
+                this.hitHigh |= BitBoard.high(origin + i * step);
+
+            }
+
+            this.owners[origin + i * step] = (byte) (this.count + 1);
+
+        }
+
+        if ((this.hitLow & maskLow) == maskLow && (this.hitHigh & maskHigh) == maskHigh) {
+
+            this.sunkLow |= maskLow;
+            this.sunkHigh |= maskHigh;
+
+        }
+
+        this.occupiedLow |= maskLow;
+        this.occupiedHigh |= maskHigh;
+
+        this.shipLow[this.count] = maskLow;
+        this.shipHigh[this.count] = maskHigh;
+        this.origins[this.count] = origin;
+        this.verticals[this.count] = isVertical;
+        this.ships[this.count] = ship;
+        this.count++;
+
+    }
+
+    public boolean canPlace(ShipInterface ship, Position position, boolean isVertical) {
+
+        if (!BoardSize.STANDARD.fits(position, ship.getSize(), isVertical)) return false;
+
+        int origin = BoardSize.STANDARD.index(position), step = isVertical ? 10 : 1;
+        long maskLow = 0L, maskHigh = 0L;
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            maskLow |= BitBoard.low(origin + i * step);
+            maskHigh |= BitBoard.high(origin + i * step);
+
+        }
+
+        return ((maskLow & this.occupiedLow) | (maskHigh & this.occupiedHigh)) == 0;
+
+    }
+
+    public void shoot(Position position) throws InvalidPositionException {
+
+        BoardSize.STANDARD.validate(position);
+
+        this.shoot(BoardSize.STANDARD.index(position));
+
+    }
+
+    public void shoot(int cell) throws InvalidPositionException {
+
+        BoardSize.STANDARD.validate(cell);
+
+        int owner = this.owners[cell] - 1;
+
+        if (owner < 0) return;
+
+        this.hitLow |= BitBoard.low(cell);
+        this.hitHigh |= BitBoard.high(cell);
+
+        long maskLow = this.shipLow[owner], maskHigh = this.shipHigh[owner];
+
+        if ((this.hitLow & maskLow) == maskLow && (this.hitHigh & maskHigh) == maskHigh) {
+
+            this.sunkLow |= maskLow;
+            this.sunkHigh |= maskHigh;
+
+        }
+
+        // Keep the ship object in step, so that saving the board still works
+
+        this.ships[owner].shoot((cell - this.origins[owner]) / (this.verticals[owner] ? 10 : 1));
+
+    }
+
+    public ShotOutcome fire(Position position) throws InvalidPositionException {
+
+        BoardSize.STANDARD.validate(position);
+
+        return this.fire(BoardSize.STANDARD.index(position));
+
+    }
+
+    public ShotOutcome fire(int cell) throws InvalidPositionException {
+
+        this.shoot(cell);
+
+        int owner = this.owners[cell] - 1;
+
+        if (owner < 0) return ShotOutcome.miss(this.allSunk());
+
+        long maskLow = this.shipLow[owner], maskHigh = this.shipHigh[owner];
+
+        if ((this.sunkLow & maskLow) != maskLow || (this.sunkHigh & maskHigh) != maskHigh) return ShotOutcome.hit(owner);
+
+        int[] cells = new int[Long.bitCount(maskLow) + Long.bitCount(maskHigh)];
+
+        for (int i = 0; i < cells.length; i++) {
+
+            if (maskLow != 0) {
+
+                cells[i] = Long.numberOfTrailingZeros(maskLow);
+                maskLow &= maskLow - 1;
+
+            } else {
+
+                cells[i] = 64 + Long.numberOfTrailingZeros(maskHigh);
+                maskHigh &= maskHigh - 1;
+
+            }
+
+        }
+
+        return new ShotOutcome(ShotStatus.SUNK, owner, cells, this.allSunk());
+
+    }
+
+    public ShipStatus getStatus(Position position) throws InvalidPositionException {
+
+        BoardSize.STANDARD.validate(position);
+
+        return this.getStatus(BoardSize.STANDARD.index(position));
+
+    }
+
+    public ShipStatus getStatus(int cell) throws InvalidPositionException {
+
+        BoardSize.STANDARD.validate(cell);
+
+        long low = BitBoard.low(cell), high = BitBoard.high(cell);
+
+        if (((this.sunkLow & low) | (this.sunkHigh & high)) != 0) return ShipStatus.SUNK;
+        if (((this.hitLow & low) | (this.hitHigh & high)) != 0) return ShipStatus.HIT;
+        if (((this.occupiedLow & low) | (this.occupiedHigh & high)) != 0) return ShipStatus.INTACT;
+
+        return ShipStatus.NONE;
+
+    }
+
+    public boolean allSunk() {
+        return this.sunkLow == this.occupiedLow && this.sunkHigh == this.occupiedHigh;
+    }
+
+    public BoardSize getSize() {
+        return BoardSize.STANDARD;
+    }
+
+    public Map<Placement, ShipInterface> getShips() {
+
+        Map<Placement, ShipInterface> ships = new LinkedHashMap<>();
+
+        for (int i = 0; i < this.count; i++) {
+
+            ships.put(new Placement(Position.of(this.origins[i]), this.verticals[i]), this.ships[i]);
+
+        }
+
+        return Ship.copyOf(ships);
+
+    }
+
+    public BoardInterface clone() {
+
+        BitBoard board = new BitBoard();
+
+        board.occupiedLow = this.occupiedLow;
+        board.occupiedHigh = this.occupiedHigh;
+        board.hitLow = this.hitLow;
+        board.hitHigh = this.hitHigh;
+        board.sunkLow = this.sunkLow;
+        board.sunkHigh = this.sunkHigh;
+
+        board.shipLow = this.shipLow.clone();
+        board.shipHigh = this.shipHigh.clone();
+        board.origins = this.origins.clone();
+        board.verticals = this.verticals.clone();
+        board.owners = this.owners.clone();
+        board.ships = new ShipInterface[this.ships.length];
+        board.count = this.count;
+
+        for (int i = 0; i < this.count; i++) {
+
+            board.ships[i] = Ship.copyOf(this.ships[i]);
+
+        }
+
+        return board;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return BoardSize.STANDARD.render(c -> {
+
+            long low = BitBoard.low(c), high = BitBoard.high(c);
+
+            if (((this.sunkLow & low) | (this.sunkHigh & high)) != 0) return "S";
+            if (((this.hitLow & low) | (this.hitHigh & high)) != 0) return "H";
+            if (((this.occupiedLow & low) | (this.occupiedHigh & high)) != 0) return "I";
+
+            return "_";
+
+        });
+
+    }
+
+}
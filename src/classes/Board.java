@@ -1,243 +1,263 @@
 package classes;
 
 import enums.ShipStatus;
+import enums.ShotStatus;
 import exceptions.InvalidPositionException;
 import exceptions.ShipOverlapException;
 import interfaces.BoardInterface;
 import interfaces.ShipInterface;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 public class Board implements BoardInterface {
 
-    private HashMap<Placement, ShipInterface> ships = new HashMap<>();
+    private BoardSize size;
+    private HashMap<Placement, ShipInterface> ships;
+    private CellIndex index;
 
     /**
-     * @param position A position to be validated
-     *
-     * @throws InvalidPositionException if the provided position is null, smaller than 1, or greater than 10
+     * The number of ship cells on the board that are still INTACT
      */
-    static void isPositionValid(Position position) throws InvalidPositionException {
+    private int intact = 0;
 
-        if (position == null) throw new InvalidPositionException("Position is null");
-        if (position.getX() < 1 || position.getX() >= 11) throw new InvalidPositionException("y is out-of-bounds");
-        if (position.getY() < 1 || position.getY() >= 11) throw new InvalidPositionException("x is out-of-bounds");
+    /**
+     * True if the ships and index may be referenced by another board, in which case they are copied before the first
+     * change to them
+     */
+    private boolean shared = false;
 
+    public Board() {
+        this(BoardSize.STANDARD);
     }
 
     /**
-     * @return the ships on the board
+     * @param size The dimensions of the board. Every cell is indexed, so very large boards should use SparseBoard
      */
-    HashMap<Placement, ShipInterface> getShips() {
-        return this.ships;
+    public Board(BoardSize size) {
+
+        this.size = size;
+        this.ships = new HashMap<>();
+        this.index = new CellIndex(size.getCells());
+
     }
 
-    public void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException {
+    /**
+     * Creates a board that shares its state with the source until either of them is changed
+     *
+     * @param source The board to copy
+     */
+    private Board(Board source) {
 
-        Board.isPositionValid(position);
-        Board.isPositionValid(new Position(
-                position.getX() + (isVertical ? 0 : ship.getSize() - 1),
-                position.getY() + (isVertical ? ship.getSize() - 1 : 0)
-        ));
+        this.size = source.size;
+        this.ships = source.ships;
+        this.index = source.index;
+        this.intact = source.intact;
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+        this.shared = source.shared = true;
 
-            ShipInterface s = entry.getValue();
-            Placement p = entry.getKey();
+    }
 
-            for (int i = 0; i < s.getSize(); i++) {
+    public BoardSize getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return the index from each cell of the board to the ship occupying it. It may be shared with clones of this
+     * board, so it must only be read.
+     */
+    CellIndex getIndex() {
+        return this.index;
+    }
 
-               int x = p.isVertical() ? p.getPosition().getX() : p.getPosition().getX() + i;
-               int y = p.isVertical() ? p.getPosition().getY() + i : p.getPosition().getY();
+    /**
+     * @return copies of the ships, which can be read or changed without affecting this board or any clone of it
+     */
+    public Map<Placement, ShipInterface> getShips() {
+        return Ship.copyOf(this.ships);
+    }
 
-               for (int j = 0; j < ship.getSize(); j ++) {
+    public void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException {
 
-                    int shipX = isVertical ? position.getX() : position.getX() + j;
-                    int shipY = isVertical ? position.getY() + j : position.getY();
+        this.size.validate(position, ship.getSize(), isVertical);
 
-                    if (shipX == x && shipY == y) throw new ShipOverlapException("(" + x + ", " + y + ")");
+        int origin = this.size.index(position), step = isVertical ? this.size.getWidth() : 1;
 
-               }
+        for (int i = 0; i < ship.getSize(); i++) {
 
-            }
+            int c = origin + i * step;
+
+            if (this.index.getShip(c) != null) throw new ShipOverlapException("(" + (c % this.size.getWidth() + 1) + ", " + (c / this.size.getWidth() + 1) + ")", false);
 
         }
 
-        this.ships.put(new Placement(position, isVertical), ship);
+        this.unshare();
 
-    }
+        for (int i = 0; i < ship.getSize(); i++) {
 
-    public void shoot(Position position) throws InvalidPositionException {
+            this.index.put(origin + i * step, ship, this.ships.size(), i, isVertical);
 
-        Board.isPositionValid(position);
+            if (ship.getStatus(i) == ShipStatus.INTACT) this.intact++;
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+        }
 
-            ShipInterface s = entry.getValue();
-            Placement p = entry.getKey();
+        this.ships.put(new Placement(position, isVertical), ship);
 
-            for (int i = 0; i < s.getSize(); i++) {
+    }
 
-                int x = p.isVertical() ? p.getPosition().getX() : p.getPosition().getX() + i;
-                int y = p.isVertical() ? p.getPosition().getY() + i : p.getPosition().getY();
+    public boolean canPlace(ShipInterface ship, Position position, boolean isVertical) {
 
-                if (x == position.getX() && y == position.getY()) {
+        if (!this.size.fits(position, ship.getSize(), isVertical)) return false;
 
-                    s.shoot(i);
-                    return;
+        int origin = this.size.index(position), step = isVertical ? this.size.getWidth() : 1;
 
-                }
+        for (int i = 0; i < ship.getSize(); i++) {
 
-            }
+            if (this.index.getShip(origin + i * step) != null) return false;
 
         }
 
-    }
+        return true;
 
-    public ShipStatus getStatus(Position position) throws InvalidPositionException {
+    }
 
-        Board.isPositionValid(position);
+    public void shoot(Position position) throws InvalidPositionException {
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+        this.size.validate(position);
 
-            ShipInterface s = entry.getValue();
-            Placement p = entry.getKey();
+        this.shoot(this.size.index(position));
 
-            for (int i = 0; i < s.getSize(); i++) {
+    }
 
-                int x = p.isVertical() ? p.getPosition().getX() : p.getPosition().getX() + i;
-                int y = p.isVertical() ? p.getPosition().getY() + i : p.getPosition().getY();
+    public void shoot(int cell) throws InvalidPositionException {
 
-                if (x == position.getX() && y == position.getY()) {
+        this.size.validate(cell);
 
-                    return s.getStatus(i);
+        ShipInterface s = this.index.getShip(cell);
 
-                }
+        if (s == null) return;
 
-            }
+        this.unshare();
 
-        }
+        s = this.index.getShip(cell);
 
-        return ShipStatus.NONE;
+        int offset = this.index.getOffset(cell);
 
-    }
+        if (s.getStatus(offset) == ShipStatus.INTACT) this.intact--;
 
-    public boolean allSunk() {
+        s.shoot(offset);
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
-
-            ShipInterface s = entry.getValue();
+    }
 
-            if (!s.isSunk()) return false;
+    public ShotOutcome fire(Position position) throws InvalidPositionException {
 
-        }
+        this.size.validate(position);
 
-        return true;
+        return this.fire(this.size.index(position));
 
     }
 
-    public BoardInterface clone() {
+    public ShotOutcome fire(int cell) throws InvalidPositionException {
 
-        Board board = new Board();
+        this.shoot(cell);
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+        ShipInterface s = this.index.getShip(cell);
 
-            try {
-
-                Placement p = entry.getKey();
+        if (s == null) return ShotOutcome.miss(this.intact == 0);
 
-                board.placeShip(entry.getValue(), p.getPosition(), p.isVertical());
+        if (!s.isSunk()) return ShotOutcome.hit(this.index.getId(cell));
 
+        int step = this.index.isVertical(cell) ? this.size.getWidth() : 1, origin = cell - this.index.getOffset(cell) * step;
+        int[] cells = new int[s.getSize()];
 
-            } catch (InvalidPositionException | ShipOverlapException e) {
+        for (int i = 0; i < cells.length; i++) {
 
-                System.out.println("Error cloning board: " + e.toString());
-
-            }
+            cells[i] = origin + i * step;
 
         }
 
-       return board;
+        return new ShotOutcome(ShotStatus.SUNK, this.index.getId(cell), cells, this.intact == 0);
 
     }
 
-    @Override
-    public String toString() {
+    public ShipStatus getStatus(Position position) throws InvalidPositionException {
 
-        String[][] board = new String[10][10];
+        this.size.validate(position);
 
-        for (int i = 0; i < 10; i++) {
+        return this.getStatus(this.size.index(position));
 
-            for (int j = 0; j < 10; j++) {
+    }
 
-                board[i][j] = "_";
+    public ShipStatus getStatus(int cell) throws InvalidPositionException {
 
-            }
+        this.size.validate(cell);
 
-        }
+        ShipInterface s = this.index.getShip(cell);
 
-        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+        return s == null ? ShipStatus.NONE : s.getStatus(this.index.getOffset(cell));
 
-            ShipInterface s = entry.getValue();
-            Placement p = entry.getKey();
+    }
 
-            for (int i = 0; i < s.getSize(); i++) {
+    public boolean allSunk() {
+        return this.intact == 0;
+    }
 
-                int x = p.isVertical() ? p.getPosition().getX() : p.getPosition().getX() + i;
-                int y = p.isVertical() ? p.getPosition().getY() + i : p.getPosition().getY();
+    /**
+     * @return a copy of the board in O(1). The copy shares its ships with this board until one of them places a ship or
+     * shoots one, at which point that board takes its own copies of the ships
+     */
+    public BoardInterface clone() {
+        return new Board(this);
+    }
 
-                try {
+    /**
+     * Gives this board its own copies of the ships and index if they may be referenced by another board
+     */
+    private void unshare() {
 
-                    board[y - 1][x - 1] = s.getStatus(i).toString().substring(0, 1);
+        if (!this.shared) return;
 
-                } catch (InvalidPositionException e) {
+        HashMap<Placement, ShipInterface> ships = new HashMap<>();
+        Map<ShipInterface, ShipInterface> copies = new IdentityHashMap<>();
 
-                    System.out.println("Error generating board: " + e.toString());
+        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
 
-                }
+            Ship copy = Ship.copyOf(entry.getValue());
 
-            }
+            ships.put(entry.getKey(), copy);
+            copies.put(entry.getValue(), copy);
 
         }
 
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("   ");
-
-        for (int i = 0; i < 10; i ++) {
-
-            sb.append(" ").append(i + 1);
+        this.ships = ships;
+        this.index = this.index.copy(copies);
+        this.shared = false;
 
-        }
-
-        sb.append("\n   ");
+    }
 
-        for (int i = 0; i < 10; i ++) {
+    @Override
+    public String toString() {
 
-            sb.append(" ").append("_");
+        return this.size.render(c -> {
 
-        }
+            ShipInterface s = this.index.getShip(c);
 
-        sb.append("\n");
+            if (s == null) return "_";
 
-        for (int i = 0; i < board.length; i++) {
+            try {
 
-            String[] row = board[i];
+                return s.getStatus(this.index.getOffset(c)).toString().substring(0, 1);
 
-            sb.append(i + 1).append(i == 9 ? "" : " ").append(" |");
+            } catch (InvalidPositionException e) {
 
-            for (String cell: row) {
+                System.out.println("Error generating board: " + e.toString());
 
-                sb.append(cell).append("|");
+                return "_";
 
             }
 
-            sb.append("\n");
-
-        }
-
-        return sb.toString();
+        });
 
     }
 
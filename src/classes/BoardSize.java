@@ -0,0 +1,292 @@
+package classes;
+
+import exceptions.InvalidPositionException;
+
+import java.util.function.IntFunction;
+
+/**
+ * The dimensions of a board. Cells are numbered row by row from the top left, so cell i is
+ * (x, y) = (i % width + 1, i / width + 1)
+ */
+public class BoardSize {
+
+    /**
+     * The largest width or height a board may have
+     */
+    public static final int MAX = 10000;
+
+    public static final BoardSize STANDARD = new BoardSize(10, 10);
+
+    private final int width, height;
+
+    /**
+     * @param width the number of columns, from 1 to MAX
+     * @param height the number of rows, from 1 to MAX
+     *
+     * @throws IllegalArgumentException if either dimension is out of range
+     */
+    public BoardSize(int width, int height) {
+
+        if (width < 1 || width > MAX || height < 1 || height > MAX) {
+
+            throw new IllegalArgumentException("Invalid board size: " + width + "x" + height);
+
+        }
+
+        this.width = width;
+        this.height = height;
+
+    }
+
+    /**
+     * @param size a size in the form written by toString, e.g. 10x10
+     *
+     * @return the size
+     *
+     * @throws IllegalArgumentException if the size is malformed or out of range
+     */
+    public static BoardSize parse(String size) {
+
+        String[] components = size.trim().split("x");
+
+        if (components.length != 2) throw new IllegalArgumentException("Invalid board size: " + size);
+
+        BoardSize parsed = new BoardSize(Integer.valueOf(components[0]), Integer.valueOf(components[1]));
+
+        return parsed.equals(STANDARD) ? STANDARD : parsed;
+
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * @return the number of cells on the board
+     */
+    public int getCells() {
+        return this.width * this.height;
+    }
+
+    /**
+     * @return true if and only if both parameters lie on the board
+     */
+    public boolean contains(int x, int y) {
+        return x >= 1 && x <= this.width && y >= 1 && y <= this.height;
+    }
+
+    /**
+     * @return the index of the cell at (x, y), assuming it lies on the board
+     */
+    public int index(int x, int y) {
+        return (y - 1) * this.width + (x - 1);
+    }
+
+    /**
+     * @return the index of the cell at the position, assuming it lies on the board
+     */
+    public int index(Position position) {
+        return this.index(position.getX(), position.getY());
+    }
+
+    /**
+     * @param cell the index of a cell on the board
+     *
+     * @return the position of the cell, shared where possible
+     */
+    public Position position(int cell) {
+        return Position.at(cell % this.width + 1, cell / this.width + 1);
+    }
+
+    /**
+     * @return the number of symmetries of the board: 8 for a square board, whose rotations and reflections all map it
+     * onto itself, and 4 otherwise
+     */
+    public int getSymmetries() {
+        return this.width == this.height ? 8 : 4;
+    }
+
+    /**
+     * @param cell the index of a cell on the board
+     * @param symmetry a symmetry of the board, from 0 to getSymmetries() - 1, 0 being the identity
+     *
+     * @return the index of the cell the symmetry maps the cell onto
+     */
+    public int transform(int cell, int symmetry) {
+
+        int x = cell % this.width, y = cell / this.width, w = this.width - 1, h = this.height - 1;
+
+        switch (symmetry) {
+
+            case 1: return y * this.width + (w - x);
+            case 2: return (h - y) * this.width + x;
+            case 3: return (h - y) * this.width + (w - x);
+            case 4: return x * this.width + y;
+            case 5: return x * this.width + (w - y);
+            case 6: return (h - x) * this.width + y;
+            case 7: return (h - x) * this.width + (w - y);
+            default: return cell;
+
+        }
+
+    }
+
+    /**
+     * @param symmetry a symmetry of the board
+     *
+     * @return the symmetry that undoes it
+     */
+    public static int inverse(int symmetry) {
+        return symmetry == 5 ? 6 : symmetry == 6 ? 5 : symmetry;
+    }
+
+    /**
+     * @param position A position to be validated
+     *
+     * @throws InvalidPositionException if the provided position is null or does not lie on the board
+     */
+    void validate(Position position) throws InvalidPositionException {
+
+        if (position == null) throw new InvalidPositionException("Position is null", false);
+        if (position.getX() < 1 || position.getX() > this.width) throw new InvalidPositionException("x is out-of-bounds", false);
+        if (position.getY() < 1 || position.getY() > this.height) throw new InvalidPositionException("y is out-of-bounds", false);
+
+    }
+
+    /**
+     * @param position The top/left of a ship
+     * @param length The length of the ship
+     * @param isVertical True if the ship is vertical
+     *
+     * @return true if and only if every cell of the ship lies on the board
+     */
+    boolean fits(Position position, int length, boolean isVertical) {
+
+        return position != null
+                && this.contains(position.getX(), position.getY())
+                && this.contains(position.getX() + (isVertical ? 0 : length - 1), position.getY() + (isVertical ? length - 1 : 0));
+
+    }
+
+    /**
+     * @param position The top/left of a ship
+     * @param length The length of the ship
+     * @param isVertical True if the ship is vertical
+     *
+     * @throws InvalidPositionException if not every cell of the ship lies on the board
+     */
+    void validate(Position position, int length, boolean isVertical) throws InvalidPositionException {
+
+        this.validate(position);
+
+        if (!isVertical && position.getX() + length - 1 > this.width) throw new InvalidPositionException("x is out-of-bounds", false);
+        if (isVertical && position.getY() + length - 1 > this.height) throw new InvalidPositionException("y is out-of-bounds", false);
+
+    }
+
+    /**
+     * @param cell A cell index to be validated
+     *
+     * @throws InvalidPositionException if the cell does not lie on the board
+     */
+    void validate(int cell) throws InvalidPositionException {
+
+        if (cell < 0 || cell >= this.getCells()) throw new InvalidPositionException("cell is out-of-bounds", false);
+
+    }
+
+    /**
+     * @param cells gives the single character to draw for each cell
+     *
+     * @return the grid, with column numbers across the top and row numbers down the side
+     */
+    String render(IntFunction<String> cells) {
+
+        int margin = Integer.toString(this.height).length();
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i <= margin; i++) {
+
+            sb.append(" ");
+
+        }
+
+        for (int i = 0; i < this.width; i ++) {
+
+            sb.append(" ").append(i + 1);
+
+        }
+
+        sb.append("\n");
+
+        for (int i = 0; i <= margin; i++) {
+
+            sb.append(" ");
+
+        }
+
+        for (int i = 0; i < this.width; i ++) {
+
+            sb.append(" ").append("_");
+
+        }
+
+        sb.append("\n");
+
+        for (int y = 0; y < this.height; y++) {
+
+            String label = Integer.toString(y + 1);
+
+            sb.append(label);
+
+            for (int i = label.length(); i < margin; i++) {
+
+                sb.append(" ");
+
+            }
+
+            sb.append(" |");
+
+            for (int x = 0; x < this.width; x++) {
+
+                sb.append(cells.apply(y * this.width + x)).append("|");
+
+            }
+
+            sb.append("\n");
+
+        }
+
+        return sb.toString();
+
+    }
+
+    @Override
+    public String toString() {
+        return this.width + "x" + this.height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BoardSize size = (BoardSize) o;
+
+        return width == size.width && height == size.height;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return 31 * width + height;
+
+    }
+
+}
@@ -0,0 +1,267 @@
+package classes;
+
+import enums.ShipStatus;
+import exceptions.InvalidPositionException;
+import exceptions.ShipOverlapException;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A view of a board, handed to a player in place of a clone while they choose a placement. Ships placed on the view are
+ * checked against the board and recorded in a scratch overlay, so the board itself is never changed. The first shot at
+ * the view copies the board and the overlay into a private clone, which the view uses from then on, for ships placed
+ * later as well as for shots.
+ *
+ * A view is made for one call to choosePlacement and invalidated when it returns, after which every method throws
+ * IllegalStateException, so a player that keeps the view cannot use it to watch the board later.
+ */
+class BoardView implements BoardInterface {
+
+    private BoardInterface board;
+
+    private ShipInterface[] ships = new ShipInterface[5];
+    private Position[] positions = new Position[5];
+    private boolean[] verticals = new boolean[5];
+    private int[] cells = new int[17];
+    private int shipCount = 0, cellCount = 0;
+
+    /**
+     * True once the view has been shot at, and board is a private clone rather than the board viewed
+     */
+    private boolean detached = false;
+
+    /**
+     * @param board The board to view
+     */
+    BoardView(BoardInterface board) {
+
+        this.board = board;
+
+    }
+
+    /**
+     * Cuts the view off from the board, so that any later use of it throws IllegalStateException
+     */
+    void invalidate() {
+
+        this.board = null;
+
+    }
+
+    /**
+     * @return the board the view reads from
+     *
+     * @throws IllegalStateException if the view has been invalidated
+     */
+    private BoardInterface board() {
+
+        if (this.board == null) throw new IllegalStateException("Board view is no longer valid");
+
+        return this.board;
+
+    }
+
+    /**
+     * Replaces the board with a private clone holding the ships placed on the view, so that it can be shot at
+     *
+     * @return the clone
+     */
+    private BoardInterface detach() {
+
+        if (!this.detached) {
+
+            this.board = this.clone();
+            this.shipCount = this.cellCount = 0;
+            this.detached = true;
+
+        }
+
+        return this.board;
+
+    }
+
+    public void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException {
+
+        // Once shot at, the view owns its board, and ships go straight onto it so that later shots can hit them
+
+        if (this.detached) {
+
+            this.board().placeShip(ship, position, isVertical);
+
+            return;
+
+        }
+
+        BoardSize size = this.board().getSize();
+
+        size.validate(position, ship.getSize(), isVertical);
+
+        int origin = size.index(position), step = isVertical ? size.getWidth() : 1;
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            int c = origin + i * step;
+
+            if (this.board.getStatus(c) != ShipStatus.NONE || this.isTentative(c)) {
+
+                throw new ShipOverlapException("(" + (c % size.getWidth() + 1) + ", " + (c / size.getWidth() + 1) + ")", false);
+
+            }
+
+        }
+
+        if (this.shipCount == this.ships.length) {
+
+            this.ships = Arrays.copyOf(this.ships, this.shipCount * 2);
+            this.positions = Arrays.copyOf(this.positions, this.shipCount * 2);
+            this.verticals = Arrays.copyOf(this.verticals, this.shipCount * 2);
+
+        }
+
+        if (this.cellCount + ship.getSize() > this.cells.length) {
+
+            this.cells = Arrays.copyOf(this.cells, (this.cellCount + ship.getSize()) * 2);
+
+        }
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            this.cells[this.cellCount++] = origin + i * step;
+
+        }
+
+        this.ships[this.shipCount] = ship;
+        this.positions[this.shipCount] = position;
+        this.verticals[this.shipCount] = isVertical;
+        this.shipCount++;
+
+    }
+
+    public boolean canPlace(ShipInterface ship, Position position, boolean isVertical) {
+
+        if (!this.board().canPlace(ship, position, isVertical)) return false;
+
+        int origin = this.board.getSize().index(position), step = isVertical ? this.board.getSize().getWidth() : 1;
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            if (this.isTentative(origin + i * step)) return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Shoots a private copy of the board; the board viewed is not changed
+     */
+    public void shoot(Position position) throws InvalidPositionException {
+        this.detach().shoot(position);
+    }
+
+    /**
+     * Shoots a private copy of the board; the board viewed is not changed
+     */
+    public void shoot(int cell) throws InvalidPositionException {
+        this.detach().shoot(cell);
+    }
+
+    /**
+     * Fires at a private copy of the board; the board viewed is not changed
+     */
+    public ShotOutcome fire(Position position) throws InvalidPositionException {
+        return this.detach().fire(position);
+    }
+
+    /**
+     * Fires at a private copy of the board; the board viewed is not changed
+     */
+    public ShotOutcome fire(int cell) throws InvalidPositionException {
+        return this.detach().fire(cell);
+    }
+
+    public ShipStatus getStatus(Position position) throws InvalidPositionException {
+
+        this.board().getSize().validate(position);
+
+        return this.getStatus(this.board.getSize().index(position));
+
+    }
+
+    public ShipStatus getStatus(int cell) throws InvalidPositionException {
+
+        ShipStatus status = this.board().getStatus(cell);
+
+        return status == ShipStatus.NONE && this.isTentative(cell) ? ShipStatus.INTACT : status;
+
+    }
+
+    public boolean allSunk() {
+        return this.shipCount == 0 && this.board().allSunk();
+    }
+
+    public BoardSize getSize() {
+        return this.board().getSize();
+    }
+
+    /**
+     * @return copies of the ships on the underlying board; ships placed on the view are not included until the view
+     * has been shot at
+     */
+    public Map<Placement, ShipInterface> getShips() {
+        return this.board().getShips();
+    }
+
+    /**
+     * @return a board that can be freely changed, holding the ships of the underlying board and those placed on the
+     * view
+     */
+    public BoardInterface clone() {
+
+        BoardInterface board = this.board().clone();
+
+        for (int i = 0; i < this.shipCount; i++) {
+
+            try {
+
+                board.placeShip(Ship.copyOf(this.ships[i]), this.positions[i], this.verticals[i]);
+
+            } catch (InvalidPositionException | ShipOverlapException e) {
+
+                System.out.println("Error cloning board: " + e.toString());
+
+            }
+
+        }
+
+        return board;
+
+    }
+
+    /**
+     * @param cell The index of the cell
+     *
+     * @return true if a ship placed on the view covers the cell
+     */
+    private boolean isTentative(int cell) {
+
+        for (int i = 0; i < this.cellCount; i++) {
+
+            if (this.cells[i] == cell) return true;
+
+        }
+
+        return false;
+
+    }
+
+    @Override
+    public String toString() {
+        return this.shipCount == 0 ? this.board().toString() : this.clone().toString();
+    }
+
+}
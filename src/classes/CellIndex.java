@@ -0,0 +1,106 @@
+package classes;
+
+import interfaces.ShipInterface;
+
+import java.util.Map;
+
+/**
+ * Maps each cell of a board to the ship occupying it, the order in which that ship was placed, its orientation, and the
+ * cell's offset from the top/left of the ship
+ */
+class CellIndex {
+
+    private ShipInterface[] ships;
+    private byte[] offsets;
+    private int[] ids;
+    private boolean[] verticals;
+
+    /**
+     * @param cells the number of cells on the board
+     */
+    CellIndex(int cells) {
+
+        this.ships = new ShipInterface[cells];
+        this.offsets = new byte[cells];
+        this.ids = new int[cells];
+        this.verticals = new boolean[cells];
+
+    }
+
+    /**
+     * @param cell The index of the cell, from 0
+     * @param ship The ship occupying the cell
+     * @param id The number of ships placed on the board before this one
+     * @param offset The offset of the cell from the top/left of the ship
+     * @param isVertical True if the ship is vertical
+     */
+    void put(int cell, ShipInterface ship, int id, int offset, boolean isVertical) {
+
+        this.ships[cell] = ship;
+        this.ids[cell] = id;
+        this.offsets[cell] = (byte) offset;
+        this.verticals[cell] = isVertical;
+
+    }
+
+    /**
+     * @param cell The index of the cell, from 0
+     *
+     * @return the ship occupying the cell, or null if the cell is empty
+     */
+    ShipInterface getShip(int cell) {
+        return this.ships[cell];
+    }
+
+    /**
+     * @param cell The index of the cell, from 0
+     *
+     * @return the offset of the cell from the top/left of the ship occupying it
+     */
+    int getOffset(int cell) {
+        return this.offsets[cell];
+    }
+
+    /**
+     * @param cell The index of the cell, from 0
+     *
+     * @return the number of ships placed on the board before the one occupying the cell
+     */
+    int getId(int cell) {
+        return this.ids[cell];
+    }
+
+    /**
+     * @param cell The index of the cell, from 0
+     *
+     * @return true if the ship occupying the cell is vertical
+     */
+    boolean isVertical(int cell) {
+        return this.verticals[cell];
+    }
+
+    /**
+     * @param replacements The ship to put in place of each ship in the index
+     *
+     * @return a copy of the index that refers to the replacement ships
+     */
+    CellIndex copy(Map<ShipInterface, ShipInterface> replacements) {
+
+        CellIndex index = new CellIndex(0);
+
+        index.ships = new ShipInterface[this.ships.length];
+        index.offsets = this.offsets.clone();
+        index.ids = this.ids.clone();
+        index.verticals = this.verticals.clone();
+
+        for (int i = 0; i < this.ships.length; i++) {
+
+            if (this.ships[i] != null) index.ships[i] = replacements.get(this.ships[i]);
+
+        }
+
+        return index;
+
+    }
+
+}
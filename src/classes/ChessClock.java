@@ -0,0 +1,83 @@
+package classes;
+
+/**
+ * A chess clock for two players, measured in nanoseconds. Each player starts with the same time and gains a fixed
+ * increment after every move made in time; only the player to move has their clock running. A player whose time has run
+ * out stays flagged for the rest of the game.
+ */
+public class ChessClock {
+
+    private final long[] remaining = new long[2];
+    private final long increment;
+
+    /**
+     * The player whose clock is running, or -1 if neither, and the time it was started
+     */
+    private int running = -1;
+    private long startedAt;
+
+    /**
+     * @param initial The time each player starts with, in nanoseconds
+     * @param increment The time added to a player's clock after each move made in time, in nanoseconds
+     */
+    public ChessClock(long initial, long increment) {
+
+        if (initial < 0 || increment < 0) throw new IllegalArgumentException("Times must not be negative");
+
+        this.remaining[0] = this.remaining[1] = initial;
+        this.increment = increment;
+
+    }
+
+    /**
+     * Starts a player's clock, stopping the other player's without an increment if it is running
+     *
+     * @param player 0 for the first player, 1 for the second
+     */
+    public synchronized void start(int player) {
+
+        if (this.running >= 0) this.remaining[this.running] -= System.nanoTime() - this.startedAt;
+
+        this.running = player;
+        this.startedAt = System.nanoTime();
+
+    }
+
+    /**
+     * Stops the running clock, adding the increment if the player moved in time
+     *
+     * @return true if the player moved in time
+     */
+    public synchronized boolean stop() {
+
+        if (this.running < 0) return true;
+
+        int player = this.running;
+
+        this.remaining[player] -= System.nanoTime() - this.startedAt;
+        this.running = -1;
+
+        if (this.remaining[player] < 0) return false;
+
+        this.remaining[player] += this.increment;
+
+        return true;
+
+    }
+
+    /**
+     * @return the time the player has left, in nanoseconds, counting down if their clock is running; negative once they
+     * have run out
+     */
+    public synchronized long getRemaining(int player) {
+        return this.remaining[player] - (this.running == player ? System.nanoTime() - this.startedAt : 0);
+    }
+
+    /**
+     * @return true if the player has run out of time
+     */
+    public boolean isFlagged(int player) {
+        return this.getRemaining(player) < 0;
+    }
+
+}
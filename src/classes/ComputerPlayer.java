@@ -1,99 +1,228 @@
 package classes;
 
 import enums.ShotStatus;
-import exceptions.InvalidPositionException;
 import exceptions.PauseException;
-import exceptions.ShipOverlapException;
 import interfaces.BoardInterface;
 import interfaces.PlayerInterface;
 import interfaces.ShipInterface;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
 
 public class ComputerPlayer implements PlayerInterface {
 
-    private ShotBoard shots = new ShotBoard();
-    private ProbabilityDensityGrid densityGrid = new ProbabilityDensityGrid();
-    private Deque<Position> targets = new ArrayDeque<>();
+    /**
+     * The most cells a board may have for the player to keep a density grid, which takes about 10 bytes a cell: some
+     * 40 MB at this size. On larger boards the player hunts at random among the cells the shortest ship still afloat
+     * must cross, and chases hits as usual.
+     */
+    static final int MAX_GRID_CELLS = 1 << 22;
+
+    private ShotBoard shots;
+    private int[] fleet;
+    private ProbabilityDensityGrid densityGrid;
+    private TargetSet targets;
+    private MonteCarloDensity sampler;
+    private ExactDensity solver;
+    private PlacementSampler placer;
+    private PlacementOptimizer optimizer;
+    private Random random;
+
+    /**
+     * Remembers the shots chosen by the density grid, shared with other players
+     */
+    private ShotCache cache = ShotCache.SHARED;
+
+    /**
+     * The layout chosen by the optimizer, and the index of the next ship to place from it
+     */
+    private Placement[] layout;
+    private int nextPlacement = 0;
     private String name;
 
+    /**
+     * The cells of ships known to have been sunk, one bit per cell
+     */
+    private long[] sunkCells;
+
+    /**
+     * How much more likely than chance the opponent is to put a ship on each cell, or null to treat every cell alike
+     */
+    private double[] prior;
+
     public ComputerPlayer(String name) {
-        this(name, new ShotBoard());
+        this(name, BoardSize.STANDARD, Game.FLEET);
+    }
+
+    /**
+     * @param size The dimensions of the boards in the game
+     * @param fleet The lengths of the ships each player places
+     */
+    public ComputerPlayer(String name, BoardSize size, int[] fleet) {
+        this(name, new ShotBoard(size), fleet);
     }
 
     ComputerPlayer(String name, ShotBoard shots) {
+        this(name, shots, Game.FLEET);
+    }
+
+    ComputerPlayer(String name, ShotBoard shots, int[] fleet) {
 
         this.name = name;
         this.shots = shots;
+        this.fleet = fleet.clone();
+        this.random = new Random();
+        this.placer = new PlacementSampler(this.random);
+        this.sunkCells = new long[(shots.getSize().getCells() + 63) >>> 6];
+        this.densityGrid = new ProbabilityDensityGrid(shots.getSize());
+        this.targets = new TargetSet(shots.getSize());
+
+        // Ships sunk before a game was saved no longer count towards the grid, and hits on ships still afloat are
+        // chased as before
 
-        this.densityGrid.update();
+        for (Map.Entry<Position, ShotStatus> shot: shots) {
+
+            if (shot.getValue() == ShotStatus.SUNK) this.densityGrid.sunk(shots.getSize().index(shot.getKey()));
+
+        }
+
+        this.targets.retarget();
 
     }
 
     public Position chooseShot() {
 
-        if (this.targets.isEmpty()) {
+        double[] probabilities = this.solver == null
+                ? null
+                : this.solver.solve(this.shots, this.sunkCells, this.densityGrid.getRemaining());
+
+        if (probabilities != null) {
+
+            int best = -1;
 
-            return this.densityGrid.getMaxPosition();
+            for (int c = 0; c < probabilities.length; c++) {
 
-        } else {
+                if (probabilities[c] > 0 && (best < 0 || probabilities[c] > probabilities[best]) && !this.shots.contains(c)) best = c;
 
-            return this.targets.pop();
+            }
+
+            if (best >= 0) return this.shots.getSize().position(best);
 
         }
 
+        if (this.sampler != null) {
+
+            long[] counts = this.sampler.sample(this.shots, this.sunkCells, this.densityGrid.getRemaining());
+            int best = -1;
+
+            for (int c = 0; counts != null && c < counts.length; c++) {
+
+                if (counts[c] > 0 && (best < 0 || counts[c] > counts[best]) && !this.shots.contains(c)) best = c;
+
+            }
+
+            // Without a layout in time, fall back to the density grid and target set
+
+            if (best >= 0) return this.shots.getSize().position(best);
+
+        }
+
+        int cell = this.targets.pop();
+
+        return cell < 0 ? this.hunt() : this.shots.getSize().position(cell);
+
     }
 
-    public Placement choosePlacement(ShipInterface ship, BoardInterface board) throws PauseException {
+    /**
+     * @return the best cell according to the density grid, taken from the opening book or the shot cache if this
+     * state, or a rotation or reflection of it, is found there
+     */
+    private Position hunt() {
 
-        Random r = new Random();
+        // States are only shared between players with the same, uniform, prior, and boards too large for a grid are
+        // hunted at random
 
-        while (true) {
+        if (this.prior != null || !this.densityGrid.isKept()) return this.densityGrid.getMaxPosition(0);
 
-            try {
+        BoardSize size = this.shots.getSize();
+        int symmetry = this.shots.getCanonicalSymmetry();
+        long hash = this.shots.getHash(symmetry), signature = this.densityGrid.getSignature();
+        int cached = OpeningBook.lookup(hash, signature);
 
-                Position p = new Position(r.nextInt(10) + 1, r.nextInt(10) + 1);
-                boolean isVertical = r.nextBoolean();
+        if (cached < 0) cached = this.cache.get(hash, signature);
 
-                board.placeShip(ship, p, isVertical);
+        if (cached >= 0) {
 
-                return new Placement(p, isVertical);
+            int cell = size.transform(cached, BoardSize.inverse(symmetry));
 
-            } catch (InvalidPositionException | ShipOverlapException e) {}
+            // Guards against the rare hash collision
+
+            if (!this.shots.contains(cell)) return size.position(cell);
 
         }
 
-    }
+        // The grid is judged as the board looks under the canonical symmetry, so that it chooses the cell it would have
+        // chosen in any rotation or reflection of this state, and the cell cached here is right for all of them
 
-    public void shotResult(Position position, ShotStatus status) {
+        Position p = this.densityGrid.getMaxPosition(symmetry);
 
-        this.shots.addShot(position, status);
+        this.cache.put(hash, signature, size.transform(size.index(p), symmetry));
 
-        if (status == ShotStatus.HIT) {
+        return p;
 
-            int[] x = new int[]{0, 1, 0, -1}, y = new int[]{-1, 0, 1, 0};
+    }
 
-            for (int i = 0; i < 4; i ++) {
+    public Placement choosePlacement(ShipInterface ship, BoardInterface board) throws PauseException {
 
-                try {
+        if (this.optimizer != null && board.getSize().getCells() <= PlacementSampler.MAX_ENUMERATED) {
 
-                    Position newTarget = new Position(position.getX() + x[i], position.getY() + y[i]);
+            if (this.layout == null || this.nextPlacement >= this.layout.length) {
 
-                    if (!this.shots.getShots().containsKey(newTarget) && !this.targets.contains(newTarget)) {
+                this.layout = this.optimizer.optimize(board.getSize(), this.fleet);
+                this.nextPlacement = 0;
 
-                        this.targets.push(newTarget);
+            }
 
-                    }
+            // Ships are asked for in fleet order; anything else, such as a game loaded part way through placing, falls
+            // back to random placement
+
+            int i = this.nextPlacement++;
 
-                } catch (InvalidPositionException e) {}
+            if (this.fleet[i] == ship.getSize() && board.canPlace(ship, this.layout[i].getPosition(), this.layout[i].isVertical())) {
+
+                return this.layout[i];
 
             }
 
         }
 
-        this.densityGrid.update();
+        Placement placement = this.placer.choose(ship, board);
+
+        // With no room left for the ship, offer the top left corner and let the board reject it
+
+        return placement != null ? placement : new Placement(board.getSize().position(0), false);
+
+    }
+
+    public void shotResult(Position position, ShotStatus status) {
+
+        int cell = this.shots.getSize().index(position);
+        ShotStatus previous = this.shots.getShot(cell);
+
+        this.shots.addShot(cell, status);
+
+        if (status == ShotStatus.HIT) this.targets.hit(cell);
+
+        if (status == ShotStatus.SUNK) {
+
+            this.densityGrid.sunk(cell);
+            this.targets.retarget();
+
+        }
+
+        if (previous == ShotStatus.MISS && status != ShotStatus.MISS) this.densityGrid.invalidate();
+        else if (previous != ShotStatus.MISS && status == ShotStatus.MISS) this.densityGrid.miss(cell);
 
     }
 
@@ -108,61 +237,680 @@ public class ComputerPlayer implements PlayerInterface {
         return this.shots;
     }
 
+    /**
+     * @return true if the next shot will come from the density grid rather than the targets around a hit
+     */
+    boolean isHunting() {
+        return this.targets.isEmpty();
+    }
+
+    /**
+     * @return a hash of the board size and the ships still afloat
+     */
+    long getSignature() {
+        return this.densityGrid.getSignature();
+    }
+
+    /**
+     * @return the cells of ships known to have been sunk, one bit per cell
+     */
+    long[] getSunkCells() {
+        return this.sunkCells;
+    }
+
+    /**
+     * @return the lengths of the ships still afloat
+     */
+    int[] getRemaining() {
+        return this.densityGrid.getRemaining();
+    }
+
+    /**
+     * @param sampler Chooses shots by sampling fleet layouts, in place of the density grid and target set, or null
+     */
+    void setSampler(MonteCarloDensity sampler) {
+        this.sampler = sampler;
+    }
+
+    /**
+     * @param solver Chooses shots from exact probabilities once few enough layouts remain, or null
+     */
+    void setSolver(ExactDensity solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * @param optimizer Chooses a layout that simulated hunters find hard to sink, in place of random placement, or null
+     */
+    void setOptimizer(PlacementOptimizer optimizer) {
+
+        this.optimizer = optimizer;
+        this.layout = null;
+
+    }
+
+    /**
+     * @param cache Remembers the shots chosen by the density grid, e.g. one kept apart from the shared cache for
+     * simulated games
+     */
+    void setCache(ShotCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @param random The source of randomness for placing ships, and for hunting on boards too large for a density
+     * grid, e.g. seeded for a repeatable simulation
+     */
+    void setRandom(Random random) {
+
+        this.random = random;
+        this.placer = new PlacementSampler(random);
+
+    }
+
+    /**
+     * @param prior How much more likely than chance the opponent is to put a ship on each cell, as learned by the
+     * OpponentModel, or null to treat every cell alike
+     */
+    void setPrior(double[] prior) {
+        this.prior = prior;
+    }
+
+    /**
+     * @param cell The index of a cell
+     *
+     * @return true if the cell was hit but is not yet known to belong to a sunk ship
+     */
+    private boolean isLiveHit(int cell) {
+
+        ShotStatus status = this.shots.getShot(cell);
+
+        return status != null && status != ShotStatus.MISS && (this.sunkCells[cell >>> 6] & (1L << cell)) == 0;
+
+    }
+
+    /**
+     * The cells to shoot at next while chasing a ship that has been hit. Targets are kept on a stack, with a bit per
+     * cell recording which are still wanted; a cell pushed again moves to the top, and its older entry is skipped when
+     * reached. Once two hits line up, the cells continuing the line are pushed last so that they are tried first.
+     */
+    private class TargetSet {
+
+        private BoardSize size;
+        private int[] stack = new int[16];
+        private int count = 0;
+
+        /**
+         * The cells still wanted, one bit per cell
+         */
+        private long[] pending;
+
+        TargetSet(BoardSize size) {
+
+            this.size = size;
+            this.pending = new long[(size.getCells() + 63) >>> 6];
+
+        }
+
+        /**
+         * @return true if no target is left that has not been shot at
+         */
+        boolean isEmpty() {
+
+            while (this.count > 0) {
+
+                int cell = this.stack[this.count - 1];
+
+                if ((this.pending[cell >>> 6] & (1L << cell)) != 0 && !shots.contains(cell)) return false;
+
+                this.count--;
+
+            }
+
+            return true;
+
+        }
+
+        /**
+         * @return the most promising target not yet shot at, or -1 if there is none
+         */
+        int pop() {
+
+            while (this.count > 0) {
+
+                int cell = this.stack[--this.count];
+
+                if ((this.pending[cell >>> 6] & (1L << cell)) == 0) continue;
+
+                this.pending[cell >>> 6] &= ~(1L << cell);
+
+                if (!shots.contains(cell)) return cell;
+
+            }
+
+            return -1;
+
+        }
+
+        /**
+         * Adds the cells around a hit, and the ends of any line of hits it is part of
+         *
+         * @param cell The index of the cell that was hit
+         */
+        void hit(int cell) {
+
+            int width = this.size.getWidth(), x = cell % width + 1, y = cell / width + 1;
+
+            this.push(x, y - 1);
+            this.push(x + 1, y);
+            this.push(x, y + 1);
+            this.push(x - 1, y);
+
+            for (int k = 0; k < 2; k++) {
+
+                boolean isVertical = k == 0;
+                int before = this.end(x, y, isVertical, -1), after = this.end(x, y, isVertical, 1);
+
+                if (before == 1 && after == 1) continue;
+
+                this.push(isVertical ? x : x - before, isVertical ? y - before : y);
+                this.push(isVertical ? x : x + after, isVertical ? y + after : y);
+
+            }
+
+        }
+
+        /**
+         * Discards every target and rebuilds the set from the hits not yet known to belong to a sunk ship
+         */
+        void retarget() {
+
+            Arrays.fill(this.pending, 0L);
+            this.count = 0;
+
+            for (int word = 0; word < this.pending.length; word++) {
+
+                long live = (shots.getMask(ShotStatus.HIT, word) | shots.getMask(ShotStatus.SUNK, word)) & ~sunkCells[word];
+
+                while (live != 0) {
+
+                    this.hit((word << 6) + Long.numberOfTrailingZeros(live));
+
+                    live &= live - 1;
+
+                }
+
+            }
+
+        }
+
+        /**
+         * @return the distance from (x, y) to the first cell in the given direction that is not a live hit
+         */
+        private int end(int x, int y, boolean isVertical, int step) {
+
+            int n = 1;
+
+            while (true) {
+
+                int cx = isVertical ? x : x + n * step, cy = isVertical ? y + n * step : y;
+
+                if (!this.size.contains(cx, cy) || !isLiveHit(this.size.index(cx, cy))) return n;
+
+                n++;
+
+            }
+
+        }
+
+        /**
+         * Puts a cell on top of the stack, if it lies on the board and has not been shot at
+         */
+        private void push(int x, int y) {
+
+            if (!this.size.contains(x, y)) return;
+
+            int cell = this.size.index(x, y);
+
+            if (shots.contains(cell)) return;
+
+            if (this.count == this.stack.length) this.stack = Arrays.copyOf(this.stack, this.count * 2);
+
+            this.stack[this.count++] = cell;
+            this.pending[cell >>> 6] |= 1L << cell;
+
+        }
+
+    }
+
+    /**
+     * Counts, for every cell, the ship placements that cover it and avoid every MISS so far. Each placement of each
+     * ship length is added to the grid once; a MISS then subtracts only the placements through that cell, rather than
+     * the whole grid being recounted after every shot. The placements themselves come from tables shared by every
+     * player.
+     *
+     * The grid is only brought up to date when it is read, so shots taken while chasing targets cost almost nothing.
+     * Ships that have been sunk stop counting, and the scan for the best cell only visits every nth cell along a
+     * diagonal lattice, n being the length of the shortest ship still afloat. The lattice is the one the shots so far
+     * have followed most closely, and ties between equally good cells are broken in the order of the board under a
+     * given symmetry, so that the cell chosen in a rotation or reflection of a state is the rotation or reflection of
+     * the cell chosen in the state itself.
+     *
+     * On boards of more than MAX_GRID_CELLS cells no grid is kept: only the ships still afloat are tracked, and the
+     * best cell is a random one on a lattice of the same spacing.
+     */
     private class ProbabilityDensityGrid {
 
-        private int[][] densityGrid = new int[10][10];
-        private int parity = 2;
+        private BoardSize size;
+        private DensityKernel kernel;
+
+        /**
+         * The number of placements covering each cell, indexed by cell, or null if the board is too large to keep one
+         */
+        private int[] densityGrid;
+
+        /**
+         * Scratch space for the placements starting at each cell in one direction, during a refill
+         */
+        private int[] starts;
+
+        /**
+         * True if the grid must be wiped and refilled before it is next read
+         */
+        private boolean dirty = true;
+
+        /**
+         * MISSes not yet subtracted from the grid
+         */
+        private int[] pending = new int[16];
+        private int pendingCount = 0;
+
+
+        /**
+         * The placements of each distinct ship length in the fleet, and how many ships there are of each length
+         */
+        private PlacementTable[] tables;
+        private int[] counts;
+
+        /**
+         * Whether each placement of each length is still possible, one bit per placement, indexed by [length][word]
+         */
+        private long[][] alive;
+
+        ProbabilityDensityGrid(BoardSize size) {
+
+            this.size = size;
+            this.kernel = DensityKernel.best();
+
+            int[] sorted = fleet.clone();
+            int distinct = 0;
+
+            Arrays.sort(sorted);
+
+            this.tables = new PlacementTable[sorted.length];
+            this.counts = new int[sorted.length];
+
+            for (int i = 0; i < sorted.length; i++) {
+
+                if (i == 0 || sorted[i] != sorted[i - 1]) this.tables[distinct++] = PlacementTable.of(size, sorted[i]);
+
+                this.counts[distinct - 1]++;
+
+            }
+
+            this.tables = Arrays.copyOf(this.tables, distinct);
+            this.counts = Arrays.copyOf(this.counts, distinct);
+
+            if (size.getCells() > MAX_GRID_CELLS) return;
+
+            this.densityGrid = new int[size.getCells()];
+            this.starts = new int[size.getCells()];
+            this.alive = new long[distinct][];
+
+            for (int i = 0; i < distinct; i++) {
+
+                this.alive[i] = new long[(this.tables[i].getCount() + 63) >>> 6];
+
+            }
+
+        }
+
+        /**
+         * @return true if the board is small enough for the grid to be kept
+         */
+        boolean isKept() {
+            return this.densityGrid != null;
+        }
 
         /**
-         * Wipes and refills the grid
+         * Wipes and refills the grid from every shot taken so far
          */
         void update() {
 
-            for (int j = 0; j < 10; j++) {
+            if (this.densityGrid == null) return;
+
+            Arrays.fill(this.densityGrid, 0);
+
+            for (int i = 0; i < this.tables.length; i++) {
+
+                if (this.counts[i] > 0) this.addShip(i);
+
+            }
+
+            this.dirty = false;
+            this.pendingCount = 0;
+
+        }
+
+        /**
+         * Marks the grid to be wiped and refilled before it is next read
+         */
+        void invalidate() {
+            this.dirty = true;
+        }
+
+        /**
+         * Records a cell which has just been found to be a MISS, to be subtracted from the grid when it is next read
+         *
+         * @param cell The index of the cell
+         */
+        void miss(int cell) {
+
+            if (this.dirty || this.densityGrid == null) return;
+
+            if (this.pendingCount == this.pending.length) this.pending = Arrays.copyOf(this.pending, this.pendingCount * 2);
+
+            this.pending[this.pendingCount++] = cell;
+
+        }
+
+        /**
+         * Works out which ship a SUNK shot finished off, from the run of HITs through the cell, and stops counting it.
+         * The ship is taken to be the longest one still afloat that fits within the run.
+         *
+         * @param cell The index of the cell that was SUNK
+         */
+        void sunk(int cell) {
+
+            int width = this.size.getWidth(), x = cell % width + 1, y = cell / width + 1;
+            int best = -1, bestBefore = 0;
+            boolean bestVertical = false;
+
+            for (int k = 0; k < 2; k++) {
+
+                boolean isVertical = k == 0;
+                int before = this.run(x, y, isVertical, -1), after = this.run(x, y, isVertical, 1);
+
+                for (int i = 0; i < this.tables.length; i++) {
+
+                    int length = this.tables[i].getLength();
+
+                    if (this.counts[i] > 0 && length <= before + after + 1 && (best < 0 || length > this.tables[best].getLength())) {
+
+                        best = i;
+                        bestBefore = before;
+                        bestVertical = isVertical;
+
+                    }
+
+                }
+
+            }
+
+            if (best < 0) return;
+
+            // Attribute the cells before the sinking shot first, then any still needed after it
+
+            int length = this.tables[best].getLength(), start = -Math.min(bestBefore, length - 1);
+
+            for (int offset = start; offset < start + length; offset++) {
+
+                int c = this.size.index(bestVertical ? x : x + offset, bestVertical ? y + offset : y);
+
+                sunkCells[c >>> 6] |= 1L << c;
+
+            }
+
+            this.counts[best]--;
+            this.dirty = true;
+
+        }
+
+        /**
+         * @return the number of cells in a row from (x, y), not counting (x, y) itself, that were hit but are not yet
+         * known to belong to a sunk ship
+         */
+        private int run(int x, int y, boolean isVertical, int step) {
+
+            int n = 0;
+
+            while (true) {
+
+                int cx = isVertical ? x : x + (n + 1) * step, cy = isVertical ? y + (n + 1) * step : y;
+
+                if (!this.size.contains(cx, cy)) return n;
+
+                if (!isLiveHit(this.size.index(cx, cy))) return n;
+
+                n++;
+
+            }
+
+        }
+
+        /**
+         * @return a hash of the board size and the ships still afloat, which together with the shots decide the grid
+         */
+        long getSignature() {
+
+            long signature = (long) this.size.getWidth() << 32 | this.size.getHeight();
+
+            for (int i = 0; i < this.tables.length; i++) {
+
+                signature = signature * 0x9E3779B97F4A7C15L + ((long) this.tables[i].getLength() << 32 | this.counts[i]);
+
+            }
+
+            return signature;
+
+        }
+
+        /**
+         * @return the lengths of the ships still afloat
+         */
+        int[] getRemaining() {
 
-                for (int i = 0; i < 10; i++) {
+            int n = 0;
 
-                    this.densityGrid[j][i] = 0;
+            for (int count: this.counts) {
+
+                n += count;
+
+            }
+
+            int[] remaining = new int[n];
+
+            for (int i = 0, k = 0; i < this.tables.length; i++) {
+
+                for (int j = 0; j < this.counts[i]; j++) {
+
+                    remaining[k++] = this.tables[i].getLength();
 
                 }
 
             }
 
-            int[] ships = new int[]{2, 3, 3, 4, 5};
+            return remaining;
 
-            for (int ship: ships) {
+        }
+
+        /**
+         * @return the length of the shortest ship still afloat, or 1 if there is none
+         */
+        private int getParity() {
+
+            for (int i = 0; i < this.tables.length; i++) {
 
-                this.addShip(ship);
+                if (this.counts[i] > 0) return Math.max(this.tables[i].getLength(), 1);
 
             }
+
+            return 1;
+
         }
 
         /**
+         * Brings the grid up to date with every shot taken so far
+         */
+        private void refresh() {
+
+            if (this.dirty) {
+
+                this.update();
+
+                return;
+
+            }
+
+            for (int k = 0; k < this.pendingCount; k++) {
+
+                this.subtract(this.pending[k]);
+
+            }
+
+            this.pendingCount = 0;
+
+        }
+
+        /**
+         * Removes the placements that cross a cell which has been found to be a MISS
+         *
+         * @param cell The index of the cell
+         */
+        private void subtract(int cell) {
+
+            for (int i = 0; i < this.tables.length; i++) {
+
+                PlacementTable table = this.tables[i];
+
+                for (int j = 0; j < table.getThroughCount(cell); j++) {
+
+                    int placement = table.getThrough(cell, j);
+
+                    if ((this.alive[i][placement >>> 6] & (1L << placement)) == 0) continue;
+
+                    this.alive[i][placement >>> 6] &= ~(1L << placement);
+                    this.add(table, placement, -this.counts[i]);
+
+                }
+
+            }
+
+        }
+
+        /**
+         * @param symmetry The symmetry under which ties are broken: the first of the best cells in the order of the
+         * board transformed by it is chosen
+         *
          * @return the position with the greatest probability of containing a ship
          */
-        Position getMaxPosition() {
+        Position getMaxPosition(int symmetry) {
 
-            Position p = null;
+            if (this.densityGrid == null) return this.getRandomPosition();
+
+            this.refresh();
+
+            int inverse = BoardSize.inverse(symmetry);
+            Position p = this.getMaxPosition(this.getLattices(this.getParity()), inverse);
+
+            // The lattice may hold nothing worth shooting at late in a game, so fall back to every cell, and then to
+            // any cell not yet shot at
+
+            if (p == null) p = this.getMaxPosition(null, inverse);
+
+            for (int k = 0; p == null && k < this.size.getCells(); k++) {
+
+                int c = this.size.transform(k, inverse);
+
+                if (!shots.contains(c)) p = this.size.position(c);
+
+            }
+
+            return p;
+
+        }
+
+        /**
+         * Picks the lattices to hunt on. Each lattice is a set of diagonals n cells apart: x - y = k (mod n) or
+         * x + y = k (mod n), for some k. Rotating or reflecting the board maps these lattices onto one another, so
+         * choosing the one holding the most shots taken so far, or every one of them that ties for the most, chooses
+         * alike in every rotation and reflection of a state.
+         *
+         * @param parity The spacing n of the lattices
+         *
+         * @return whether each lattice is chosen, those with x - y = k at k and those with x + y = k at parity + k, or
+         * null to hunt on every cell
+         */
+        private boolean[] getLattices(int parity) {
+
+            if (parity == 1) return null;
+
+            int[] shotsOn = new int[2 * parity];
             int max = 0;
 
-            for (int i = 0; i < Math.floor(100 / parity); i++) {
+            for (Map.Entry<Position, ShotStatus> shot: shots) {
 
-                int y = (i * parity) / 10, x = ((i * parity) + y) % 10;
+                int x = shot.getKey().getX(), y = shot.getKey().getY();
 
-                if (this.densityGrid[y][x] > max) {
+                shotsOn[Math.floorMod(x - y, parity)]++;
+                shotsOn[parity + (x + y) % parity]++;
 
-                    try {
+            }
 
-                        Position temp = new Position(x + 1, y + 1);
+            for (int count: shotsOn) {
 
-                        if (!shots.getShots().containsKey(temp)) {
+                max = Math.max(max, count);
 
-                            max = this.densityGrid[y][x];
-                            p = temp;
+            }
 
-                        }
+            boolean[] lattices = new boolean[2 * parity];
 
-                    } catch (InvalidPositionException e) {}
+            for (int i = 0; i < lattices.length; i++) {
+
+                lattices[i] = shotsOn[i] == max;
+
+            }
+
+            return lattices;
+
+        }
+
+        /**
+         * @param lattices The lattices to consider, as returned by getLattices, or null for every cell
+         * @param inverse The symmetry mapping the transformed board, whose order breaks ties, back onto the real one
+         *
+         * @return the position on those lattices with the greatest probability of containing a ship, the first in the
+         * transformed board's order if several tie, or null if none of them can
+         */
+        private Position getMaxPosition(boolean[] lattices, int inverse) {
+
+            Position p = null;
+            double max = 0;
+
+            int width = this.size.getWidth(), parity = lattices == null ? 1 : lattices.length / 2;
+
+            for (int k = 0; k < this.size.getCells(); k++) {
+
+                int c = inverse == 0 ? k : this.size.transform(k, inverse), x = c % width + 1, y = c / width + 1;
+
+                if (lattices != null && !lattices[Math.floorMod(x - y, parity)] && !lattices[parity + (x + y) % parity]) continue;
+
+                double density = prior == null ? this.densityGrid[c] : this.densityGrid[c] * prior[c];
+
+                if (density > max && !shots.contains(c)) {
+
+                    max = density;
+                    p = this.size.position(c);
 
                 }
 
@@ -173,55 +921,113 @@ public class ComputerPlayer implements PlayerInterface {
         }
 
         /**
-         * Attempts to place a ship in every possible cell and orientation. For each successful placement, increase the
-         * probability held within that cell (of a ship being present)
-         *
-         * @param shipSize The size of the ship to attempt to add
+         * @return a random cell not yet shot at with x = y (mod parity), the parity being the length of the shortest
+         * ship still afloat, or failing that the first cell not yet shot at
          */
-         private void addShip(int shipSize) {
+        private Position getRandomPosition() {
+
+            int width = this.size.getWidth(), height = this.size.getHeight(), parity = this.getParity();
+
+            // Most cells are still open on a board this large, so a few tries almost always find one
 
-            for (int y = 1; y < 11; y++) {
+            for (int tries = 0; tries < 64; tries++) {
 
-                for (int x = 1; x < 11; x++) {
+                int y = random.nextInt(height), x = random.nextInt(width);
 
-                    for (int k = 0; k < 2; k++) {
+                x -= Math.floorMod(x - y, parity);
 
-                        boolean isVertical = k == 0;
+                if (x < 0) x += parity;
 
-                        try {
+                if (x < width && !shots.contains(y * width + x)) return this.size.position(y * width + x);
 
-                            for (int offset = 0; offset < shipSize; offset++) {
+            }
+
+            for (int c = 0; c < this.size.getCells(); c++) {
 
-                                Position p = new Position(isVertical ? x : x + offset, isVertical ? y + offset: y);
+                if (!shots.contains(c)) return this.size.position(c);
 
-                                Board.isPositionValid(p);
+            }
 
-                                if (shots.getShots().containsKey(p) && shots.getShots().get(p) == ShotStatus.MISS) {
+            return null;
 
-                                    throw new ShipOverlapException("Already in shot board");
+        }
 
-                                }
+        /**
+         * Marks every placement of a ship length that avoids all MISSes as possible, and for each one increases the
+         * probability held within its cells (of a ship being present) once for every ship of that length
+         *
+         * @param i The index of the ship length to add
+         */
+        private void addShip(int i) {
 
-                            }
+            PlacementTable table = this.tables[i];
+            long[] alive = this.alive[i];
 
-                        } catch (InvalidPositionException | ShipOverlapException e) {
+            Arrays.fill(alive, 0L);
+
+            if (table.hasMasks()) {
+
+                long missLow = shots.getMask(ShotStatus.MISS, 0),
+                        missHigh = this.size.getCells() > 64 ? shots.getMask(ShotStatus.MISS, 1) : 0L;
+
+                for (int p = 0; p < table.getCount(); p++) {
+
+                    if (((table.getMaskLow(p) & missLow) | (table.getMaskHigh(p) & missHigh)) == 0) alive[p >>> 6] |= 1L << p;
+
+                }
 
-                            continue;
+            } else {
 
-                        }
+                for (int p = 0; p < table.getCount(); p++) {
 
-                        for (int offset = 0; offset < shipSize; offset++) {
+                    boolean clear = true;
 
-                            this.densityGrid[(isVertical ? y + offset: y) - 1][(isVertical ? x : x + offset) - 1]++;
+                    for (int offset = 0; clear && offset < table.getLength(); offset++) {
 
-                        }
+                        int cell = table.getCell(p, offset);
+
+                        clear = (shots.getMask(ShotStatus.MISS, cell >>> 6) & (1L << cell)) == 0;
 
                     }
 
+                    if (clear) alive[p >>> 6] |= 1L << p;
+
                 }
 
             }
 
+            // Placements are added by where they start, one direction at a time, and the kernel spreads them along
+            // their length
+
+            for (int k = 0; k < 2; k++) {
+
+                boolean isVertical = k == 1;
+
+                Arrays.fill(this.starts, 0);
+
+                for (int p = 0; p < table.getCount(); p++) {
+
+                    if ((alive[p >>> 6] & (1L << p)) != 0 && table.isVertical(p) == isVertical) this.starts[table.getOrigin(p)] += this.counts[i];
+
+                }
+
+                this.kernel.accumulate(this.densityGrid, this.starts, table.getLength(), isVertical ? this.size.getWidth() : 1);
+
+            }
+
+        }
+
+        /**
+         * Adds an amount to every cell of a placement
+         */
+        private void add(PlacementTable table, int placement, int amount) {
+
+            for (int offset = 0; offset < table.getLength(); offset++) {
+
+                this.densityGrid[table.getCell(placement, offset)] += amount;
+
+            }
+
         }
 
         @Override
@@ -229,15 +1035,11 @@ public class ComputerPlayer implements PlayerInterface {
 
             StringBuilder sb = new StringBuilder();
 
-            for (int j = 0; j < 10; j++) {
+            for (int c = 0; this.densityGrid != null && c < this.densityGrid.length; c++) {
 
-                for (int i = 0; i < 10; i++) {
-
-                    sb.append(this.densityGrid[j][i]).append(" ");
-
-                }
+                sb.append(this.densityGrid[c]).append(" ");
 
-                sb.append("\n");
+                if ((c + 1) % this.size.getWidth() == 0) sb.append("\n");
 
             }
 
@@ -0,0 +1,93 @@
+package classes;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times the scalar density kernel against the best one available on a range of board sizes, checking that both give
+ * the same grid. Build with ./build.sh --vector and run with --add-modules jdk.incubator.vector to include the vector
+ * kernel.
+ */
+class DensityBenchmark {
+
+    public static void main(String[] args) {
+
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{10, 100, 1000, 3000};
+        DensityKernel scalar = new ScalarDensityKernel(), best = DensityKernel.best();
+        Random random = new Random(1);
+
+        System.out.println("Comparing " + scalar + " with " + best);
+
+        for (int side: sizes) {
+
+            BoardSize size = new BoardSize(side, side);
+            int[] horizontal = new int[size.getCells()], vertical = new int[size.getCells()];
+
+            for (int c = 0; c < size.getCells(); c++) {
+
+                horizontal[c] = c % side + 5 <= side && random.nextInt(4) > 0 ? 2 : 0;
+                vertical[c] = c / side + 5 <= side && random.nextInt(4) > 0 ? 2 : 0;
+
+            }
+
+            int passes = Math.max(1, 20000000 / size.getCells());
+            long scalarTime = DensityBenchmark.time(scalar, size, horizontal, vertical, passes),
+                    bestTime = DensityBenchmark.time(best, size, horizontal, vertical, passes);
+
+            int[] expected = new int[size.getCells()], actual = new int[size.getCells()];
+
+            DensityBenchmark.fill(scalar, expected, size, horizontal, vertical);
+            DensityBenchmark.fill(best, actual, size, horizontal, vertical);
+
+            System.out.println(String.format(
+                    "%s: scalar %.1f us, %s %.1f us, speed-up %.2fx, %s",
+                    size, scalarTime / 1000.0 / passes, best, bestTime / 1000.0 / passes,
+                    (double) scalarTime / bestTime, Arrays.equals(expected, actual) ? "identical" : "DIFFERENT"
+            ));
+
+        }
+
+    }
+
+    /**
+     * @return the time taken to fill a grid the given number of times, in nanoseconds, after a warm-up
+     */
+    private static long time(DensityKernel kernel, BoardSize size, int[] horizontal, int[] vertical, int passes) {
+
+        int[] grid = new int[size.getCells()];
+
+        for (int i = 0; i < passes; i++) {
+
+            DensityBenchmark.fill(kernel, grid, size, horizontal, vertical);
+
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < passes; i++) {
+
+            DensityBenchmark.fill(kernel, grid, size, horizontal, vertical);
+
+        }
+
+        return System.nanoTime() - start;
+
+    }
+
+    /**
+     * Refills a grid as the density grid does, for the lengths of the standard fleet
+     */
+    private static void fill(DensityKernel kernel, int[] grid, BoardSize size, int[] horizontal, int[] vertical) {
+
+        Arrays.fill(grid, 0);
+
+        for (int length = 2; length <= 5; length++) {
+
+            kernel.accumulate(grid, horizontal, length, 1);
+            kernel.accumulate(grid, vertical, length, size.getWidth());
+
+        }
+
+    }
+
+}
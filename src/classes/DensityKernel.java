@@ -0,0 +1,52 @@
+package classes;
+
+/**
+ * Adds the placements of one ship length to a density grid. The grid is flat, cell i being (i % width + 1, i / width +
+ * 1), and the placements are given by where they start: starts[c] is the amount to add for every placement whose
+ * top/left cell is c. A placement of length n covers c, c + step, ..., c + (n - 1) * step, so the grid receives n
+ * shifted copies of the starts.
+ */
+interface DensityKernel {
+
+    /**
+     * @param grid The grid to add to
+     * @param starts The amount to add for the placements starting at each cell
+     * @param length The length of the placements
+     * @param step 1 for horizontal placements, or the width of the board for vertical ones
+     */
+    void accumulate(int[] grid, int[] starts, int length, int step);
+
+    /**
+     * @return the fastest kernel available: the vector kernel if it was built (from the vector source root) and the
+     * jdk.incubator.vector module is present, or the scalar one otherwise. Kernels hold no state, so one is shared.
+     */
+    static DensityKernel best() {
+        return Holder.BEST;
+    }
+
+    /**
+     * Holds the best kernel, which is looked up the first time it is asked for
+     */
+    final class Holder {
+
+        private static final DensityKernel BEST = Holder.load();
+
+        private Holder() {}
+
+        private static DensityKernel load() {
+
+            try {
+
+                return (DensityKernel) Class.forName("classes.VectorDensityKernel").getDeclaredConstructor().newInstance();
+
+            } catch (ReflectiveOperationException | LinkageError e) {
+
+                return new ScalarDensityKernel();
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,373 @@
+package classes;
+
+import enums.ShotStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Works out the exact chance of each cell holding a ship, by counting every layout of the remaining ships that agrees
+ * with the shots taken so far. Ships are placed one at a time, longest first, onto a two-word occupancy mask; the
+ * count of ways to finish a partial layout depends only on which ship comes next and which cells are taken, so it is
+ * worked out once per such state and remembered. The placements of the first ship are shared out across a fork/join
+ * pool, and all workers share the remembered states.
+ *
+ * Only boards of up to 128 cells are supported. The search is only started when a rough bound on the number of
+ * layouts is under a threshold, and is abandoned if it runs past its time limit.
+ */
+class ExactDensity {
+
+    /**
+     * The most memory, in bytes, that the partial layouts remembered during a single search may take. Each one holds a
+     * count per cell, so the number remembered falls as the board grows.
+     */
+    private static final long MEMO_BYTES = 64L << 20;
+
+    /**
+     * A rough size in bytes of a remembered partial layout, besides its counts: the map entry, state and tally
+     */
+    private static final int MEMO_OVERHEAD = 128;
+
+    private final double threshold;
+    private final long timeLimit;
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of layouts completing a partial layout, and how many of them have a ship on each cell
+     */
+    private static final class Tally {
+
+        private static final Tally NONE = new Tally(0, null), ONE = new Tally(1, null);
+
+        private final long count;
+        private final long[] cells;
+
+        private Tally(long count, long[] cells) {
+
+            this.count = count;
+            this.cells = cells;
+
+        }
+
+    }
+
+    /**
+     * A partial layout: the index of the next ship to place, and the cells taken
+     */
+    private static final class State {
+
+        private final int ship;
+        private final long low, high;
+
+        private State(int ship, long low, long high) {
+
+            this.ship = ship;
+            this.low = low;
+            this.high = high;
+
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) return true;
+
+            if (o == null || getClass() != o.getClass()) return false;
+
+            State state = (State) o;
+
+            return ship == state.ship && low == state.low && high == state.high;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Long.hashCode(low * 31 + high) * 31 + ship;
+
+        }
+
+    }
+
+    /**
+     * Thrown within a search that has run past its time limit
+     */
+    private static final class TimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private TimeoutException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    /**
+     * One search, holding everything shared by its workers
+     */
+    private static final class Search {
+
+        private final PlacementTable[] tables;
+        private final long blockedLow, blockedHigh, hitLow, hitHigh;
+        private final int[] lengthAfter;
+        private final int cells, memoLimit;
+        private final long deadline;
+        private final ConcurrentHashMap<State, Tally> memo = new ConcurrentHashMap<>();
+
+        private Search(PlacementTable[] tables, long blockedLow, long blockedHigh, long hitLow, long hitHigh, long deadline) {
+
+            this.tables = tables;
+            this.blockedLow = blockedLow;
+            this.blockedHigh = blockedHigh;
+            this.hitLow = hitLow;
+            this.hitHigh = hitHigh;
+            this.cells = tables[0].getSize().getCells();
+            this.memoLimit = (int) (MEMO_BYTES / (8L * this.cells + MEMO_OVERHEAD));
+            this.deadline = deadline;
+            this.lengthAfter = new int[tables.length + 1];
+
+            for (int i = tables.length - 1; i >= 0; i--) {
+
+                this.lengthAfter[i] = this.lengthAfter[i + 1] + tables[i].getLength();
+
+            }
+
+        }
+
+        /**
+         * @return the tally of layouts completing the partial layout, with ship and onwards still to place
+         */
+        private Tally count(int ship, long low, long high) {
+
+            long uncovered = Long.bitCount(this.hitLow & ~low) + Long.bitCount(this.hitHigh & ~high);
+
+            if (uncovered > this.lengthAfter[ship]) return Tally.NONE;
+
+            if (ship == this.tables.length) return uncovered == 0 ? Tally.ONE : Tally.NONE;
+
+            State state = new State(ship, low, high);
+            Tally tally = this.memo.get(state);
+
+            if (tally != null) return tally;
+
+            if (System.nanoTime() > this.deadline) throw new TimeoutException();
+
+            PlacementTable table = this.tables[ship];
+            long count = 0;
+            long[] cells = null;
+
+            for (int p = 0; p < table.getCount(); p++) {
+
+                long maskLow = table.getMaskLow(p), maskHigh = table.getMaskHigh(p);
+
+                if (((maskLow & low) | (maskHigh & high)) != 0) continue;
+
+                Tally rest = this.count(ship + 1, low | maskLow, high | maskHigh);
+
+                if (rest.count == 0) continue;
+
+                if (cells == null) cells = new long[this.cells];
+
+                this.add(cells, rest, table, p);
+                count += rest.count;
+
+            }
+
+            tally = count == 0 ? Tally.NONE : new Tally(count, cells);
+
+            if (this.memo.size() < this.memoLimit) this.memo.put(state, tally);
+
+            return tally;
+
+        }
+
+        /**
+         * Adds the layouts completing a placement to a running tally of cells
+         */
+        private void add(long[] cells, Tally rest, PlacementTable table, int placement) {
+
+            if (rest.cells != null) {
+
+                for (int c = 0; c < this.cells; c++) {
+
+                    cells[c] += rest.cells[c];
+
+                }
+
+            }
+
+            for (int offset = 0; offset < table.getLength(); offset++) {
+
+                cells[table.getCell(placement, offset)] += rest.count;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Counts the layouts that start with one placement of the first ship
+     */
+    private static final class Branch extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int placement;
+
+        private Branch(Search search, int placement) {
+
+            this.search = search;
+            this.placement = placement;
+
+        }
+
+        @Override
+        protected Tally compute() {
+
+            PlacementTable table = this.search.tables[0];
+
+            return this.search.count(
+                    1,
+                    this.search.blockedLow | table.getMaskLow(this.placement),
+                    this.search.blockedHigh | table.getMaskHigh(this.placement)
+            );
+
+        }
+
+    }
+
+    /**
+     * @param threshold The largest bound on the number of layouts for which a search is started
+     * @param timeLimit The longest a search may take, in nanoseconds
+     */
+    ExactDensity(double threshold, long timeLimit) {
+        this(threshold, timeLimit, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param threshold The largest bound on the number of layouts for which a search is started
+     * @param timeLimit The longest a search may take, in nanoseconds
+     * @param pool The pool to search on
+     */
+    ExactDensity(double threshold, long timeLimit, ForkJoinPool pool) {
+
+        this.threshold = threshold;
+        this.timeLimit = timeLimit;
+        this.pool = pool;
+
+    }
+
+    /**
+     * @param shots The shots taken so far
+     * @param sunkCells The cells of ships known to have been sunk, one bit per cell
+     * @param fleet The lengths of the ships still afloat
+     *
+     * @return the chance of each cell holding a ship, or null if the board is too large, the layouts too many, none
+     * agree with the shots, or the time limit ran out
+     */
+    double[] solve(ShotBoard shots, long[] sunkCells, int[] fleet) {
+
+        BoardSize size = shots.getSize();
+
+        if (fleet.length == 0 || size.getCells() > 128) return null;
+
+        long blockedLow = shots.getMask(ShotStatus.MISS, 0) | sunkCells[0],
+                blockedHigh = size.getCells() > 64 ? shots.getMask(ShotStatus.MISS, 1) | sunkCells[1] : 0L,
+                hitLow = (shots.getMask(ShotStatus.HIT, 0) | shots.getMask(ShotStatus.SUNK, 0)) & ~blockedLow,
+                hitHigh = size.getCells() > 64 ? (shots.getMask(ShotStatus.HIT, 1) | shots.getMask(ShotStatus.SUNK, 1)) & ~blockedHigh : 0L;
+
+        // Longest first, as long ships have the fewest placements and cut the search down soonest
+
+        int[] lengths = fleet.clone();
+        PlacementTable[] tables = new PlacementTable[lengths.length];
+        double bound = 1;
+
+        Arrays.sort(lengths);
+
+        for (int i = 0; i < lengths.length; i++) {
+
+            PlacementTable table = PlacementTable.of(size, lengths[lengths.length - 1 - i]);
+            int open = 0;
+
+            for (int p = 0; p < table.getCount(); p++) {
+
+                if (((table.getMaskLow(p) & blockedLow) | (table.getMaskHigh(p) & blockedHigh)) == 0) open++;
+
+            }
+
+            tables[i] = table;
+            bound *= open;
+
+        }
+
+        if (bound > this.threshold) return null;
+
+        Search search = new Search(tables, blockedLow, blockedHigh, hitLow, hitHigh, System.nanoTime() + this.timeLimit);
+        List<Branch> branches = new ArrayList<>();
+
+        for (int p = 0; p < tables[0].getCount(); p++) {
+
+            if (((tables[0].getMaskLow(p) & blockedLow) | (tables[0].getMaskHigh(p) & blockedHigh)) == 0) {
+
+                branches.add(new Branch(search, p));
+
+            }
+
+        }
+
+        long count = 0;
+        long[] cells = new long[size.getCells()];
+
+        try {
+
+            this.pool.invoke(new RecursiveTask<Void>() {
+
+                @Override
+                protected Void compute() {
+
+                    ForkJoinTask.invokeAll(branches);
+
+                    return null;
+
+                }
+
+            });
+
+        } catch (TimeoutException e) {
+
+            return null;
+
+        }
+
+        for (Branch branch: branches) {
+
+            Tally rest = branch.join();
+
+            if (rest.count == 0) continue;
+
+            search.add(cells, rest, tables[0], branch.placement);
+            count += rest.count;
+
+        }
+
+        if (count == 0) return null;
+
+        double[] probabilities = new double[cells.length];
+
+        for (int c = 0; c < cells.length; c++) {
+
+            probabilities[c] = (double) cells[c] / count;
+
+        }
+
+        return probabilities;
+
+    }
+
+}
@@ -1,9 +1,9 @@
 package classes;
 
+import enums.GameStatus;
 import enums.ShipStatus;
 import enums.ShotStatus;
 import exceptions.InvalidPositionException;
-import exceptions.PauseException;
 import exceptions.ShipOverlapException;
 import interfaces.BoardInterface;
 import interfaces.GameInterface;
@@ -15,21 +15,50 @@ import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
 
 public class Game implements GameInterface {
 
+    /**
+     * The lengths of the ships each player places in a standard game
+     */
+    static final int[] FLEET = new int[]{2, 3, 3, 4, 5};
+
     private PlayerInterface player1, player2, currentPlayer, opponent;
     private int turnCount = 0;
     private FileManager fileManager;
     private BoardInterface board1, board2;
+    private BoardSize size;
+    private int[] fleet;
+    private Function<BoardSize, BoardInterface> boardFactory;
 
     private Game(PlayerInterface player1, PlayerInterface player2) {
+        this(player1, player2, Board::new);
+    }
+
+    /**
+     * @param boardFactory creates the boards for new and loaded games, e.g. Board::new or BitBoard::new
+     */
+    Game(PlayerInterface player1, PlayerInterface player2, Function<BoardSize, BoardInterface> boardFactory) {
+        this(player1, player2, BoardSize.STANDARD, FLEET, boardFactory);
+    }
+
+    /**
+     * @param size The dimensions of both boards
+     * @param fleet The lengths of the ships each player places, in the order they are placed
+     * @param boardFactory creates the boards for new and loaded games, e.g. Board::new, or SparseBoard::new for very
+     * large boards
+     */
+    Game(PlayerInterface player1, PlayerInterface player2, BoardSize size, int[] fleet, Function<BoardSize, BoardInterface> boardFactory) {
 
         this.player1 = this.currentPlayer = player1;
         this.player2 = this.opponent = player2;
 
-        this.board1 = new Board();
-        this.board2 = new Board();
+        this.size = size;
+        this.fleet = fleet.clone();
+        this.boardFactory = boardFactory;
+        this.board1 = boardFactory.apply(size);
+        this.board2 = boardFactory.apply(size);
 
         this.fileManager = new FileManager();
 
@@ -37,34 +66,19 @@ public class Game implements GameInterface {
 
     public PlayerInterface play() {
 
-        try {
-
-            placeShips();
-
-            while(true) {
-
-                currentPlayer = turnCount % 2 == 0 ? player1 : player2;
-                opponent = turnCount % 2 == 0 ? player2 : player1;
-                BoardInterface opponentBoard = turnCount % 2 == 0 ? board2 : board1;
+        Game.introduce(player1, player2, size);
+        Game.introduce(player2, player1, size);
 
-                PlayerInterface winner = takeTurn(currentPlayer, opponent, opponentBoard);
+        GameEngine engine = new GameEngine(player1, player2, board1, board2, fleet, turnCount, new ConsoleListener());
+        GameResult result = engine.runToCompletion();
 
-                if (winner != null) return winner;
+        turnCount = engine.getTurnCount();
+        currentPlayer = engine.getCurrentPlayer();
+        opponent = currentPlayer == player1 ? player2 : player1;
 
-                turnCount++;
+        if (result.getStatus() == GameStatus.WON) recordLayouts();
 
-            }
-
-        } catch (PauseException e) {
-
-            return null;
-
-        } catch (InvalidPositionException e) {
-
-            if (e.getMessage().equals(player1.toString())) return player2;
-            else return player1;
-
-        }
+        return result.getWinner();
 
     }
 
@@ -80,113 +94,39 @@ public class Game implements GameInterface {
 
     }
 
-    private void placeShips() throws PauseException, InvalidPositionException {
-
-        Board board = (Board) (currentPlayer.equals(this.player1) ? board1 : board2);
-        int j = currentPlayer.equals(this.player1) ? 0 : 1;
-        int[] ships = Arrays.copyOfRange(new int[]{2, 3, 3, 4, 5}, board.getShips().size(), 5);
+    /**
+     * Gives a computer player what the opponent model has learned about where its opponent puts their ships
+     */
+    private static void introduce(PlayerInterface player, PlayerInterface opponent, BoardSize size) {
 
-        for (int i : ships) {
-
-            Ship ship;
-
-            for (; j < 2; j++) {
-
-                ship = new Ship(i);
-
-                try {
-
-                    if (currentPlayer instanceof HumanConsolePlayer) {
-
-                        System.out.println(currentPlayer + "'s turn\n");
-
-                    }
-
-                    Placement p = currentPlayer.choosePlacement(ship, board.clone());
-
-                    board.placeShip(ship, p.getPosition(), p.isVertical());
-
-                } catch (InvalidPositionException | ShipOverlapException e) {
-
-                    System.out.println("Error placing ship!");
-
-                    throw new InvalidPositionException(currentPlayer.toString());
-
-                }
+        if (player instanceof ComputerPlayer) {
 
-                currentPlayer = currentPlayer.equals(this.player1) ? player2 : player1;
-                opponent = currentPlayer.equals(this.player1) ? player2 : player1;
-                board = (Board) (currentPlayer.equals(this.player1) ? board1 : board2);
-
-                if (currentPlayer instanceof HumanConsolePlayer) {
-
-                    System.out.println("\n*******************************************\n");
-
-                }
-
-            }
-
-            j = 0;
-
-            if (currentPlayer instanceof HumanConsolePlayer && i == 5) {
-
-                System.out.println(currentPlayer + "'s board\n");
-
-                System.out.print(board.toString());
-
-                System.out.println("\n*******************************************\n");
-
-            }
+            ((ComputerPlayer) player).setPrior(OpponentModel.shared().getPrior(opponent.toString(), size));
 
         }
 
-
     }
 
-    private PlayerInterface takeTurn(PlayerInterface player,
-                                    PlayerInterface opponent,
-                                    BoardInterface opponentBoard) throws PauseException, InvalidPositionException {
+    /**
+     * Adds the layouts of a finished game to the opponent model and saves it
+     */
+    private void recordLayouts() {
 
-        System.out.println(player + "'s turn\n");
+        OpponentModel model = OpponentModel.shared();
 
-        //95 on average -> 48 turns. Not too bad.
+        model.record(player1.toString(), board1);
+        model.record(player2.toString(), board2);
 
         try {
 
-            Position p = player.chooseShot();
-            opponentBoard.shoot(p);
+            model.save();
 
-            ShotStatus s;
-
-            if (opponentBoard.getStatus(p) == ShipStatus.HIT) s = ShotStatus.HIT;
-            else if (opponentBoard.getStatus(p) == ShipStatus.SUNK) s = ShotStatus.SUNK;
-            else s = ShotStatus.MISS;
-
-            player.shotResult(p, s);
-            opponent.opponentShot(p);
-
-            if (player instanceof ComputerPlayer && !(opponent instanceof ComputerPlayer)) {
-
-                System.out.println("\n" + opponent + "'s board: \n");
-
-                System.out.println(opponentBoard.toString() + "\n");
-
-            }
-
-            // Add turn counter for each
-
-            if (opponentBoard.allSunk()) return player;
-
-        } catch (InvalidPositionException e) {
+        } catch (IOException e) {
 
-            throw new InvalidPositionException(player.toString());
+            System.out.println("Error saving opponent model: " + e.toString());
 
         }
 
-        System.out.println("*******************************************\n");
-
-        return null;
-
     }
 
     public static void main(String[] args) {
@@ -419,6 +359,68 @@ public class Game implements GameInterface {
 
     }
 
+    /**
+     * Shows the game on the console as the engine plays it
+     */
+    private class ConsoleListener implements GameEngine.Listener {
+
+        @Override
+        public void placing(PlayerInterface player, BoardInterface board) {
+
+            if (player instanceof HumanConsolePlayer) System.out.println(player + "'s turn\n");
+
+        }
+
+        @Override
+        public void placed(PlayerInterface player, BoardInterface board, boolean last) {
+
+            if (!(player instanceof HumanConsolePlayer)) return;
+
+            System.out.println("\n*******************************************\n");
+
+            if (last) {
+
+                System.out.println(player + "'s board\n");
+
+                System.out.print(board.toString());
+
+                System.out.println("\n*******************************************\n");
+
+            }
+
+        }
+
+        @Override
+        public void shooting(PlayerInterface player) {
+
+            System.out.println(player + "'s turn\n");
+
+        }
+
+        @Override
+        public void shot(PlayerInterface player, PlayerInterface opponent, BoardInterface opponentBoard, ShotOutcome outcome) {
+
+            if (player instanceof ComputerPlayer && !(opponent instanceof ComputerPlayer)) {
+
+                System.out.println("\n" + opponent + "'s board: \n");
+
+                System.out.println(opponentBoard.toString() + "\n");
+
+            }
+
+            if (!outcome.isFleetDestroyed()) System.out.println("*******************************************\n");
+
+        }
+
+        @Override
+        public void forfeited(PlayerInterface player, boolean placing) {
+
+            if (placing) System.out.println("Error placing ship!");
+
+        }
+
+    }
+
     private class FileManager {
 
         private void loadGame(String filename) throws IOException {
@@ -428,11 +430,15 @@ public class Game implements GameInterface {
 
             if (files == null || files.length == 0) throw new IOException("File not found: " + filename);
 
+            boolean isPlayer1Current = loadMeta(filename + "/meta.txt");
+
             board1 = loadBoard(filename + "/board1.txt");
             board2 = loadBoard(filename + "/board2.txt");
             player1 = loadPlayer(filename + "/player1.txt");
             player2 = loadPlayer(filename + "/player2.txt");
-            loadMeta(filename + "/meta.txt");
+
+            currentPlayer = isPlayer1Current ? player1 : player2;
+            opponent = isPlayer1Current ? player2 : player1;
 
             System.out.println("Player1: " + player1);
             System.out.println("Player2: " + player2);
@@ -451,43 +457,79 @@ public class Game implements GameInterface {
             bf.newLine();
             bf.write(Integer.toString(turnCount));
 
+            bf.newLine();
+            bf.write(size.toString());
+
+            bf.newLine();
+
+            for (int i = 0; i < fleet.length; i++) {
+
+                bf.write((i == 0 ? "" : ",") + fleet[i]);
+
+            }
+
             bf.close();
 
         }
 
-        private void loadMeta(String filename) throws IOException {
+        /**
+         * Reads the turn count and, for saves that include them, the board size and fleet
+         *
+         * @return true if player 1 is the current player
+         */
+        private boolean loadMeta(String filename) throws IOException {
 
             BufferedReader br = new BufferedReader(new FileReader(filename));
             String line = br.readLine();
+            boolean isPlayer1Current = true;
             int count = 0;
 
-            while (line != null) {
+            size = BoardSize.STANDARD;
+            fleet = FLEET.clone();
 
-                if (count == 0) {
+            try {
 
-                    if (line.equals("player1")) {
+                while (line != null) {
 
-                        currentPlayer = player1;
-                        opponent = player2;
+                    if (count == 0) {
 
-                    } else {
+                        isPlayer1Current = line.equals("player1");
 
-                        currentPlayer = player2;
-                        opponent = player1;
+                    } else if (count == 1) {
 
-                    }
+                        turnCount = Integer.valueOf(line);
 
-                } else {
+                    } else if (count == 2) {
+
+                        size = BoardSize.parse(line);
+
+                    } else if (count == 3) {
+
+                        String components[] = line.split(",");
 
-                    turnCount = Integer.valueOf(line);
+                        fleet = new int[components.length];
+
+                        for (int i = 0; i < components.length; i++) {
+
+                            fleet[i] = Integer.valueOf(components[i]);
+
+                        }
+
+                    }
+
+                    line = br.readLine();
+                    count++;
 
                 }
 
-                line = br.readLine();
-                count++;
+            } catch (IllegalArgumentException e) {
+
+                throw new IOException("Data corrupted: " + e.toString());
 
             }
 
+            return isPlayer1Current;
+
         }
 
         private void saveGame(String filename) throws IOException {
@@ -508,7 +550,7 @@ public class Game implements GameInterface {
 
             BufferedWriter bf = new BufferedWriter(new FileWriter(filename));
 
-            for (Map.Entry<Placement, ShipInterface> entry: ((Board) board).getShips().entrySet()) {
+            for (Map.Entry<Placement, ShipInterface> entry: board.getShips().entrySet()) {
 
                 bf.write(entry.getKey().toString() + "," + entry.getValue().toString());
 
@@ -542,7 +584,7 @@ public class Game implements GameInterface {
 
             }
 
-            for (Map.Entry<Position, ShotStatus> entry: shots.getShots().entrySet()) {
+            for (Map.Entry<Position, ShotStatus> entry: shots) {
 
                 bf.write(entry.getKey().toString() + "," + entry.getValue().toString());
                 bf.newLine();
@@ -553,9 +595,9 @@ public class Game implements GameInterface {
 
         }
 
-        private Board loadBoard(String filename) throws IOException {
+        private BoardInterface loadBoard(String filename) throws IOException {
 
-            Board board = new Board();
+            BoardInterface board = boardFactory.apply(size);
 
             BufferedReader br = new BufferedReader(new FileReader(filename));
             String line = br.readLine();
@@ -598,7 +640,7 @@ public class Game implements GameInterface {
 
             BufferedReader br = new BufferedReader(new FileReader(filename));
             String line = br.readLine(), name = null, type = null;
-            ShotBoard shots = new ShotBoard();
+            ShotBoard shots = new ShotBoard(size);
             int count = 0;
 
             while (line != null) {
@@ -624,10 +666,12 @@ public class Game implements GameInterface {
 
                         ShotStatus status = ShotStatus.valueOf(statuses[0]);
 
-                        shots.addShot(p, status);
+                        // The position is checked against the loaded board, not just the largest one
 
+                        size.validate(p);
+                        shots.addShot(p, status);
 
-                    } catch (InvalidPositionException e) {
+                    } catch (InvalidPositionException | IllegalArgumentException e) {
 
                         throw new IOException("Data corrupted: " + e.toString());
 
@@ -641,7 +685,7 @@ public class Game implements GameInterface {
             }
 
             if (type.equals("HumanConsolePlayer")) return new HumanConsolePlayer(name, shots);
-            else return new ComputerPlayer(name, shots);
+            else return new ComputerPlayer(name, shots, fleet);
 
         }
     }
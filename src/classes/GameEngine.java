@@ -0,0 +1,304 @@
+package classes;
+
+import enums.GameStatus;
+import exceptions.InvalidPositionException;
+import exceptions.PauseException;
+import exceptions.ShipOverlapException;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+
+/**
+ * The rules of a game, without a console: a state machine that places every ship with setup(), takes one shot with
+ * step(), or plays to the end with runToCompletion(). Nothing is printed; a pause, a forfeit or a win is reported as a
+ * GameStatus rather than thrown, and the game as a whole as a GameResult. A front-end that wants to show the game as it
+ * goes, as Game does, passes a Listener.
+ *
+ * A paused game resumes where it stopped the next time the engine is asked to move on. An engine can also pick up a
+ * game part way through, from boards with some or all ships placed and a count of the shots already taken.
+ */
+public class GameEngine {
+
+    /**
+     * Told about each move as the engine makes it. Every method does nothing unless overridden.
+     */
+    public interface Listener {
+
+        /**
+         * @param board The player's board, before the ship is placed
+         */
+        default void placing(PlayerInterface player, BoardInterface board) {}
+
+        /**
+         * @param board The player's board, with the ship placed
+         * @param last True if it was the player's last ship
+         */
+        default void placed(PlayerInterface player, BoardInterface board, boolean last) {}
+
+        default void shooting(PlayerInterface player) {}
+
+        /**
+         * @param opponentBoard The board that was shot at
+         */
+        default void shot(PlayerInterface player, PlayerInterface opponent, BoardInterface opponentBoard, ShotOutcome outcome) {}
+
+        /**
+         * @param placing True if the player forfeited while placing a ship, rather than while shooting
+         */
+        default void forfeited(PlayerInterface player, boolean placing) {}
+
+    }
+
+    private static final Listener NONE = new Listener() {};
+
+    private final PlayerInterface player1, player2;
+    private final BoardInterface board1, board2;
+    private final int[] fleet;
+    private final Listener listener;
+
+    /**
+     * The number of ships each player has placed
+     */
+    private int placed1, placed2;
+    private int turnCount;
+    private boolean setUp;
+    private GameStatus status = GameStatus.IN_PROGRESS;
+    private PlayerInterface winner;
+
+    /**
+     * Starts a standard game on BitBoards
+     */
+    public GameEngine(PlayerInterface player1, PlayerInterface player2) {
+
+        this(player1, player2, new BitBoard(BoardSize.STANDARD), new BitBoard(BoardSize.STANDARD), Game.FLEET, 0, NONE);
+
+    }
+
+    /**
+     * @param board1 The board player 1 places their ships on, with any ships already placed
+     * @param board2 The board player 2 places their ships on, with any ships already placed
+     * @param fleet The lengths of the ships each player places, in the order they are placed
+     * @param turnCount The number of shots already taken; player 1 shoots when it is even
+     * @param listener Told about each move, or null
+     */
+    GameEngine(PlayerInterface player1, PlayerInterface player2, BoardInterface board1, BoardInterface board2,
+               int[] fleet, int turnCount, Listener listener) {
+
+        this.player1 = player1;
+        this.player2 = player2;
+        this.board1 = board1;
+        this.board2 = board2;
+        this.fleet = fleet.clone();
+        this.placed1 = board1.getShips().size();
+        this.placed2 = board2.getShips().size();
+        this.turnCount = turnCount;
+        this.listener = listener == null ? NONE : listener;
+
+    }
+
+    /**
+     * Asks the players, in turn, for every ship not yet placed
+     *
+     * @return IN_PROGRESS once every ship is placed; PAUSED if a player paused; FORFEITED if a player placed a ship
+     * illegally or chose no placement, or the game was already over
+     */
+    public GameStatus setup() {
+
+        if (this.isOver()) return this.status;
+
+        while (!this.isSetUp()) {
+
+            // Ships are placed alternately, player 1 first, so whoever has placed fewer is next
+
+            boolean first = this.placed1 <= this.placed2;
+            PlayerInterface player = first ? this.player1 : this.player2;
+            BoardInterface board = first ? this.board1 : this.board2;
+            int placed = first ? this.placed1 : this.placed2;
+            BoardView view = new BoardView(board);
+
+            this.listener.placing(player, board);
+
+            try {
+
+                Placement p;
+
+                try {
+
+                    p = player.choosePlacement(new Ship(this.fleet[placed]), view);
+
+                } finally {
+
+                    view.invalidate();
+
+                }
+
+                if (p == null) return this.forfeit(player, true);
+
+                // The ship handed to the player is theirs to change, so a new one is placed
+
+                board.placeShip(new Ship(this.fleet[placed]), p.getPosition(), p.isVertical());
+
+            } catch (PauseException e) {
+
+                return GameStatus.PAUSED;
+
+            } catch (InvalidPositionException | ShipOverlapException e) {
+
+                return this.forfeit(player, true);
+
+            }
+
+            if (first) this.placed1++;
+            else this.placed2++;
+
+            this.listener.placed(player, board, placed == this.fleet.length - 1);
+
+        }
+
+        return GameStatus.IN_PROGRESS;
+
+    }
+
+    /**
+     * Asks the current player for a shot and fires it, first placing any ships not yet placed
+     *
+     * @return WON if the shot sank the last of the opponent's ships; FORFEITED if the shot was illegal or the player
+     * chose none; PAUSED if a player paused; otherwise IN_PROGRESS. A game already over stays as it ended.
+     */
+    public GameStatus step() {
+
+        if (this.isOver()) return this.status;
+
+        if (!this.isSetUp()) {
+
+            GameStatus setup = this.setup();
+
+            if (setup != GameStatus.IN_PROGRESS) return setup;
+
+        }
+
+        boolean first = this.turnCount % 2 == 0;
+        PlayerInterface player = first ? this.player1 : this.player2, opponent = first ? this.player2 : this.player1;
+        BoardInterface opponentBoard = first ? this.board2 : this.board1;
+
+        this.listener.shooting(player);
+
+        ShotOutcome outcome;
+
+        try {
+
+            Position p = player.chooseShot();
+
+            if (p == null) return this.forfeit(player, false);
+
+            outcome = opponentBoard.fire(p);
+
+            player.shotResult(p, outcome.getStatus());
+            opponent.opponentShot(p);
+
+        } catch (PauseException e) {
+
+            return GameStatus.PAUSED;
+
+        } catch (InvalidPositionException e) {
+
+            return this.forfeit(player, false);
+
+        }
+
+        this.listener.shot(player, opponent, opponentBoard, outcome);
+
+        if (outcome.isFleetDestroyed()) {
+
+            this.status = GameStatus.WON;
+            this.winner = player;
+
+            return this.status;
+
+        }
+
+        this.turnCount++;
+
+        return GameStatus.IN_PROGRESS;
+
+    }
+
+    /**
+     * Places every ship and takes shots until the game is won, forfeited or paused
+     */
+    public GameResult runToCompletion() {
+
+        GameStatus status = this.step();
+
+        while (status == GameStatus.IN_PROGRESS) {
+
+            status = this.step();
+
+        }
+
+        return this.getResult(status);
+
+    }
+
+    /**
+     * @return the game as it stands
+     */
+    public GameResult getResult() {
+        return this.getResult(this.status);
+    }
+
+    private GameResult getResult(GameStatus status) {
+
+        PlayerInterface loser = this.winner == null ? null : this.winner == this.player1 ? this.player2 : this.player1;
+
+        return new GameResult(status, this.winner, loser, this.turnCount + (this.status == GameStatus.WON ? 1 : 0));
+
+    }
+
+    /**
+     * @return true if every ship of both players has been placed
+     */
+    public boolean isSetUp() {
+
+        if (!this.setUp) {
+
+            this.setUp = this.placed1 >= this.fleet.length && this.placed2 >= this.fleet.length;
+
+        }
+
+        return this.setUp;
+
+    }
+
+    /**
+     * @return true if the game has been won or forfeited
+     */
+    public boolean isOver() {
+        return this.status != GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * @return the number of shots taken, not counting a winning shot
+     */
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    /**
+     * @return the player to shoot next
+     */
+    public PlayerInterface getCurrentPlayer() {
+        return this.turnCount % 2 == 0 ? this.player1 : this.player2;
+    }
+
+    private GameStatus forfeit(PlayerInterface player, boolean placing) {
+
+        this.listener.forfeited(player, placing);
+
+        this.status = GameStatus.FORFEITED;
+        this.winner = player == this.player1 ? this.player2 : this.player1;
+
+        return this.status;
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package classes;
+
+import enums.GameStatus;
+import interfaces.PlayerInterface;
+
+/**
+ * Where a game run by GameEngine stands: how it ended, if it has, and who won
+ */
+public class GameResult {
+
+    private final GameStatus status;
+    private final PlayerInterface winner, loser;
+    private final int turns;
+
+    GameResult(GameStatus status, PlayerInterface winner, PlayerInterface loser, int turns) {
+
+        this.status = status;
+        this.winner = winner;
+        this.loser = loser;
+        this.turns = turns;
+
+    }
+
+    public GameStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * @return true if the game was won or forfeited
+     */
+    public boolean isFinished() {
+        return this.status == GameStatus.WON || this.status == GameStatus.FORFEITED;
+    }
+
+    /**
+     * @return the winning player, or null if the game is not finished
+     */
+    public PlayerInterface getWinner() {
+        return this.winner;
+    }
+
+    /**
+     * @return the losing player, or null if the game is not finished
+     */
+    public PlayerInterface getLoser() {
+        return this.loser;
+    }
+
+    /**
+     * @return the number of shots taken by both players
+     */
+    public int getTurns() {
+        return this.turns;
+    }
+
+    @Override
+    public String toString() {
+        return this.status + (this.isFinished() ? "," + this.winner : "") + "," + this.turns;
+    }
+
+}
@@ -0,0 +1,185 @@
+package classes;
+
+import enums.ShotStatus;
+
+/**
+ * One side of a game, as a searching player sees it: the shots taken and their results, together with a guess at
+ * where the ships still afloat are hidden. Boards of up to 128 cells are held as pairs of longs, so copying a state
+ * and shooting into it are a handful of word operations, and a state can be refilled from another without allocating.
+ */
+class GameState {
+
+    /**
+     * The most ships a state can hold, the ships afloat being kept as the bits of an int
+     */
+    static final int MAX_SHIPS = 31;
+
+    private final BoardSize size;
+
+    /**
+     * Shots that missed, shots that hit, and the cells of ships that have been sunk
+     */
+    private long missLow, missHigh, hitLow, hitHigh, sunkLow, sunkHigh;
+
+    /**
+     * The low and high words of the mask of each hidden ship, at 2 * i and 2 * i + 1
+     */
+    private final long[] ships;
+    private int shipCount, afloat, shots;
+
+    /**
+     * @param size The dimensions of the board, which must have no more than 128 cells
+     * @param capacity The most ships the state will hold
+     *
+     * @throws IllegalArgumentException if the board is too large or the fleet too big
+     */
+    GameState(BoardSize size, int capacity) {
+
+        if (size.getCells() > 128) throw new IllegalArgumentException("GameState holds at most 128 cells, not " + size);
+        if (capacity > MAX_SHIPS) throw new IllegalArgumentException("GameState holds at most " + MAX_SHIPS + " ships, not " + capacity);
+
+        this.size = size;
+        this.ships = new long[2 * capacity];
+
+    }
+
+    /**
+     * Sets the state to the shots taken in a real game, with no hidden ships
+     *
+     * @param shots The shots taken
+     * @param sunkCells The cells of ships known to have been sunk, one bit per cell
+     */
+    void observe(ShotBoard shots, long[] sunkCells) {
+
+        boolean high = this.size.getCells() > 64;
+
+        this.missLow = shots.getMask(ShotStatus.MISS, 0);
+        this.missHigh = high ? shots.getMask(ShotStatus.MISS, 1) : 0L;
+        this.hitLow = shots.getMask(ShotStatus.HIT, 0) | shots.getMask(ShotStatus.SUNK, 0);
+        this.hitHigh = high ? shots.getMask(ShotStatus.HIT, 1) | shots.getMask(ShotStatus.SUNK, 1) : 0L;
+        this.sunkLow = sunkCells[0];
+        this.sunkHigh = high ? sunkCells[1] : 0L;
+        this.shipCount = this.afloat = this.shots = 0;
+
+    }
+
+    /**
+     * Hides a ship at a placement. Cells of the placement that have already been hit count as hit, so a ship placed
+     * entirely on hits is not afloat.
+     */
+    void addShip(PlacementTable table, int placement) {
+
+        long shipLow = table.getMaskLow(placement), shipHigh = table.getMaskHigh(placement);
+
+        this.ships[2 * this.shipCount] = shipLow;
+        this.ships[2 * this.shipCount + 1] = shipHigh;
+
+        if ((this.hitLow & shipLow) != shipLow || (this.hitHigh & shipHigh) != shipHigh) this.afloat |= 1 << this.shipCount;
+
+        this.shipCount++;
+
+    }
+
+    /**
+     * Makes this state a copy of another on a board of the same size, without allocating
+     */
+    void copyFrom(GameState other) {
+
+        this.missLow = other.missLow;
+        this.missHigh = other.missHigh;
+        this.hitLow = other.hitLow;
+        this.hitHigh = other.hitHigh;
+        this.sunkLow = other.sunkLow;
+        this.sunkHigh = other.sunkHigh;
+        this.shipCount = other.shipCount;
+        this.afloat = other.afloat;
+        this.shots = other.shots;
+
+        System.arraycopy(other.ships, 0, this.ships, 0, 2 * other.shipCount);
+
+    }
+
+    /**
+     * @param cell The index of a cell that has not been shot at
+     *
+     * @return the result of shooting at the cell
+     */
+    ShotStatus apply(int cell) {
+
+        long low = cell < 64 ? 1L << cell : 0L, high = cell < 64 ? 0L : 1L << (cell - 64);
+
+        this.shots++;
+
+        for (int i = 0; i < this.shipCount; i++) {
+
+            long shipLow = this.ships[2 * i], shipHigh = this.ships[2 * i + 1];
+
+            if (((shipLow & low) | (shipHigh & high)) == 0) continue;
+
+            this.hitLow |= low;
+            this.hitHigh |= high;
+
+            if ((this.hitLow & shipLow) != shipLow || (this.hitHigh & shipHigh) != shipHigh) return ShotStatus.HIT;
+
+            this.sunkLow |= shipLow;
+            this.sunkHigh |= shipHigh;
+            this.afloat &= ~(1 << i);
+
+            return ShotStatus.SUNK;
+
+        }
+
+        this.missLow |= low;
+        this.missHigh |= high;
+
+        return ShotStatus.MISS;
+
+    }
+
+    /**
+     * @return true if every hidden ship has been sunk
+     */
+    boolean isOver() {
+        return this.afloat == 0;
+    }
+
+    /**
+     * @return the number of shots applied since the state was observed
+     */
+    int getShots() {
+        return this.shots;
+    }
+
+    BoardSize getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return the cells 0-63 that have not been shot at
+     */
+    long getOpenLow() {
+        return ~(this.missLow | this.hitLow) & (this.size.getCells() >= 64 ? -1L : (1L << this.size.getCells()) - 1);
+    }
+
+    /**
+     * @return the cells 64-127 that have not been shot at
+     */
+    long getOpenHigh() {
+        return this.size.getCells() <= 64 ? 0L : ~(this.missHigh | this.hitHigh) & (this.size.getCells() == 128 ? -1L : (1L << (this.size.getCells() - 64)) - 1);
+    }
+
+    /**
+     * @return the cells 0-63 that were hit but do not belong to a ship known to be sunk
+     */
+    long getLiveLow() {
+        return this.hitLow & ~this.sunkLow;
+    }
+
+    /**
+     * @return the cells 64-127 that were hit but do not belong to a ship known to be sunk
+     */
+    long getLiveHigh() {
+        return this.hitHigh & ~this.sunkHigh;
+    }
+
+}
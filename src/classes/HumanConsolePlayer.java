@@ -18,6 +18,13 @@ public class HumanConsolePlayer implements PlayerInterface {
         this(name, new ShotBoard());
     }
 
+    /**
+     * @param size The dimensions of the boards in the game
+     */
+    HumanConsolePlayer(String name, BoardSize size) {
+        this(name, new ShotBoard(size));
+    }
+
     HumanConsolePlayer(String name, ShotBoard shots) {
 
         this.name = name;
@@ -108,13 +115,11 @@ public class HumanConsolePlayer implements PlayerInterface {
 
             try {
 
-                return new Position(coordinates[0], coordinates[1]);
-
-            } catch (InvalidPositionException e) {
+                if (this.shots.getSize().contains(coordinates[0], coordinates[1])) return Position.of(coordinates[0], coordinates[1]);
 
-                System.out.println("\nInvalid position. Try again.");
+            } catch (InvalidPositionException e) {}
 
-            }
+            System.out.println("\nInvalid position. Try again.");
 
         }
 
@@ -129,7 +134,7 @@ public class HumanConsolePlayer implements PlayerInterface {
 
             Position p = this.getCoordinateInput();
 
-            if (!this.shots.getShots().containsKey(p)) {
+            if (!this.shots.contains(p)) {
 
                 System.out.println("\n*******************************************");
 
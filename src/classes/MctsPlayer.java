@@ -0,0 +1,404 @@
+package classes;
+
+import enums.ShotStatus;
+import exceptions.PauseException;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+import interfaces.ShipInterface;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A player that chooses shots by Monte Carlo tree search. Each iteration guesses where the ships still afloat are
+ * hidden, consistent with every shot so far, then plays the rest of the game out on a GameState: down the tree of
+ * shots while it has been explored, choosing by UCB1, and then with a quick hunt-and-target policy. The fewer shots the
+ * game takes to finish, the better the first shot scored.
+ *
+ * Search is root-parallel: every worker in the pool grows its own tree, and their visit counts at the root are added
+ * up to choose the shot. Searching stops at an iteration budget or a time limit. A ComputerPlayer follows the game
+ * alongside, tracking which ships have been sunk, and takes over on boards, or fleets, too large for a GameState.
+ */
+public class MctsPlayer implements PlayerInterface {
+
+    /**
+     * The weight of exploration against exploitation in UCB1
+     */
+    private static final double EXPLORATION = 0.1;
+
+    private String name;
+    private BoardSize size;
+    private ComputerPlayer tracker;
+    private int iterations;
+    private long timeLimit;
+    private ForkJoinPool pool;
+    private SplittableRandom seeds;
+
+    /**
+     * Cells with x = y (mod 2), the cells not in the first and last columns, one pair of words each
+     */
+    private long parityLow, parityHigh, notFirstLow, notFirstHigh, notLastLow, notLastHigh;
+
+    /**
+     * The statistics of one node of a tree, indexed by the cell shot from it
+     */
+    private static final class Node {
+
+        private final int[] visits, available;
+        private final double[] totals;
+        private final Node[] children;
+
+        private Node(int cells) {
+
+            this.visits = new int[cells];
+            this.available = new int[cells];
+            this.totals = new double[cells];
+            this.children = new Node[cells];
+
+        }
+
+    }
+
+    public MctsPlayer(String name) {
+        this(name, BoardSize.STANDARD, Game.FLEET, 20000, 1000000000L, ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    /**
+     * @param size The dimensions of the boards in the game
+     * @param fleet The lengths of the ships each player places
+     * @param iterations The most iterations of search for each shot, across all workers
+     * @param timeLimit The longest the search for a shot may take, in nanoseconds
+     * @param pool The pool to search on; one worker is started per unit of parallelism
+     * @param seeds The source of each worker's random number generator
+     */
+    MctsPlayer(String name, BoardSize size, int[] fleet, int iterations, long timeLimit, ForkJoinPool pool, SplittableRandom seeds) {
+
+        this.name = name;
+        this.size = size;
+        this.tracker = new ComputerPlayer(name, size, fleet);
+        this.iterations = iterations;
+        this.timeLimit = timeLimit;
+        this.pool = pool;
+        this.seeds = seeds;
+
+        for (int c = 0; c < Math.min(size.getCells(), 128); c++) {
+
+            int x = c % size.getWidth(), y = c / size.getWidth();
+            long bit = 1L << c;
+
+            if (x % 2 == y % 2) {
+
+                if (c < 64) this.parityLow |= bit;
+                else this.parityHigh |= bit;
+
+            }
+
+            if (x > 0) {
+
+                if (c < 64) this.notFirstLow |= bit;
+                else this.notFirstHigh |= bit;
+
+            }
+
+            if (x < size.getWidth() - 1) {
+
+                if (c < 64) this.notLastLow |= bit;
+                else this.notLastHigh |= bit;
+
+            }
+
+        }
+
+    }
+
+    public Placement choosePlacement(ShipInterface ship, BoardInterface board) throws PauseException {
+        return this.tracker.choosePlacement(ship, board);
+    }
+
+    public Position chooseShot() {
+
+        int[] fleet = this.tracker.getRemaining();
+
+        // Boards and fleets too large for a GameState are left to the tracker
+
+        if (this.size.getCells() > 128 || fleet.length == 0 || fleet.length > GameState.MAX_SHIPS) return this.tracker.chooseShot();
+
+        ShotBoard shots = this.tracker.getShots();
+        long[] sunkCells = this.tracker.getSunkCells();
+        GameState root = new GameState(this.size, fleet.length);
+        PlacementTable[] tables = new PlacementTable[fleet.length];
+        boolean high = this.size.getCells() > 64;
+
+        root.observe(shots, sunkCells);
+
+        for (int i = 0; i < fleet.length; i++) {
+
+            tables[i] = PlacementTable.of(this.size, fleet[i]);
+
+        }
+
+        long[] blocked = new long[]{
+                shots.getMask(ShotStatus.MISS, 0) | sunkCells[0],
+                high ? shots.getMask(ShotStatus.MISS, 1) | sunkCells[1] : 0L
+        };
+
+        long[] hits = new long[]{root.getLiveLow(), root.getLiveHigh()};
+
+        long deadline = System.nanoTime() + this.timeLimit;
+        AtomicInteger budget = new AtomicInteger(this.iterations);
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[this.pool.getParallelism()];
+        int[][] results = new int[workers.length][];
+
+        for (int w = 0; w < workers.length; w++) {
+
+            int worker = w;
+            SplittableRandom random;
+
+            synchronized (this.seeds) {
+
+                random = this.seeds.split();
+
+            }
+
+            workers[w] = this.pool.submit(() -> {
+
+                results[worker] = this.search(root, tables, blocked, hits, random, deadline, budget);
+
+            });
+
+        }
+
+        int[] visits = new int[this.size.getCells()];
+
+        for (int w = 0; w < workers.length; w++) {
+
+            workers[w].join();
+
+            for (int c = 0; c < visits.length; c++) {
+
+                visits[c] += results[w][c];
+
+            }
+
+        }
+
+        int best = -1;
+
+        for (int c = 0; c < visits.length; c++) {
+
+            if (visits[c] > 0 && (best < 0 || visits[c] > visits[best]) && !shots.contains(c)) best = c;
+
+        }
+
+        return best < 0 ? this.tracker.chooseShot() : this.size.position(best);
+
+    }
+
+    /**
+     * Grows one tree until the budget or the time runs out
+     *
+     * @return the number of visits to each shot from the root
+     */
+    private int[] search(GameState root, PlacementTable[] tables, long[] blocked, long[] hits, SplittableRandom random,
+                         long deadline, AtomicInteger budget) {
+
+        int cells = this.size.getCells();
+        Node tree = new Node(cells);
+        GameState state = new GameState(this.size, tables.length);
+        long[] occupied = new long[2], uncovered = new long[2];
+        int[] chosen = new int[tables.length], actions = new int[cells + 1];
+        Node[] path = new Node[cells + 1];
+
+        while (budget.getAndDecrement() > 0 && System.nanoTime() < deadline) {
+
+            if (!MonteCarloDensity.layout(tables, blocked, hits, random, occupied, uncovered, chosen)) continue;
+
+            state.copyFrom(root);
+
+            for (int i = 0; i < tables.length; i++) {
+
+                state.addShip(tables[i], chosen[i]);
+
+            }
+
+            // Down the tree while it has been explored, adding one node
+
+            Node node = tree;
+            int depth = 0;
+
+            while (!state.isOver() && (state.getOpenLow() | state.getOpenHigh()) != 0) {
+
+                int action = this.select(node, state.getOpenLow(), state.getOpenHigh(), random);
+                boolean explored = node.visits[action] > 0;
+
+                path[depth] = node;
+                actions[depth++] = action;
+                state.apply(action);
+
+                if (!explored) break;
+
+                if (node.children[action] == null) {
+
+                    node.children[action] = new Node(cells);
+
+                    break;
+
+                }
+
+                node = node.children[action];
+
+            }
+
+            // Then play the game out
+
+            while (!state.isOver() && (state.getOpenLow() | state.getOpenHigh()) != 0) {
+
+                state.apply(this.rollout(state, random));
+
+            }
+
+            double reward = 1.0 - (double) state.getShots() / cells;
+
+            for (int d = 0; d < depth; d++) {
+
+                path[d].visits[actions[d]]++;
+                path[d].totals[actions[d]] += reward;
+
+            }
+
+        }
+
+        return tree.visits;
+
+    }
+
+    /**
+     * @return the shot to take from a node: a random unexplored one if there is any, otherwise the best by UCB1,
+     * counting only the guesses in which each shot was open
+     */
+    private int select(Node node, long openLow, long openHigh, SplittableRandom random) {
+
+        int best = -1, unexplored = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int w = 0; w < 2; w++) {
+
+            long open = w == 0 ? openLow : openHigh;
+
+            while (open != 0) {
+
+                int a = (w << 6) + Long.numberOfTrailingZeros(open);
+
+                open &= open - 1;
+                node.available[a]++;
+
+                if (node.visits[a] == 0) {
+
+                    if (random.nextInt(++unexplored) == 0) best = a;
+
+                    continue;
+
+                }
+
+                if (unexplored > 0) continue;
+
+                double score = node.totals[a] / node.visits[a]
+                        + EXPLORATION * Math.sqrt(Math.log(node.available[a]) / node.visits[a]);
+
+                if (score > bestScore) {
+
+                    bestScore = score;
+                    best = a;
+
+                }
+
+            }
+
+        }
+
+        return best;
+
+    }
+
+    /**
+     * @return a quick shot for a playout: next to a hit on a ship still afloat if there is one, otherwise a random open
+     * cell of the checkerboard, otherwise any open cell
+     */
+    private int rollout(GameState state, SplittableRandom random) {
+
+        long openLow = state.getOpenLow(), openHigh = state.getOpenHigh(),
+                liveLow = state.getLiveLow(), liveHigh = state.getLiveHigh();
+        int width = this.size.getWidth();
+
+        if ((liveLow | liveHigh) != 0) {
+
+            long rightLow = liveLow & this.notLastLow, rightHigh = liveHigh & this.notLastHigh,
+                    leftLow = liveLow & this.notFirstLow, leftHigh = liveHigh & this.notFirstHigh;
+
+            long low = MctsPlayer.shiftLeftLow(rightLow, 1) | MctsPlayer.shiftRightLow(leftLow, leftHigh, 1)
+                    | MctsPlayer.shiftLeftLow(liveLow, width) | MctsPlayer.shiftRightLow(liveLow, liveHigh, width);
+            long high = MctsPlayer.shiftLeftHigh(rightLow, rightHigh, 1) | MctsPlayer.shiftRightHigh(leftHigh, 1)
+                    | MctsPlayer.shiftLeftHigh(liveLow, liveHigh, width) | MctsPlayer.shiftRightHigh(liveHigh, width);
+
+            if (((low & openLow) | (high & openHigh)) != 0) return MctsPlayer.pick(low & openLow, high & openHigh, random);
+
+        }
+
+        if (((openLow & this.parityLow) | (openHigh & this.parityHigh)) != 0) {
+
+            return MctsPlayer.pick(openLow & this.parityLow, openHigh & this.parityHigh, random);
+
+        }
+
+        return MctsPlayer.pick(openLow, openHigh, random);
+
+    }
+
+    /**
+     * @return a cell chosen uniformly from a non-empty two-word set
+     */
+    private static int pick(long low, long high, SplittableRandom random) {
+
+        int lowCount = Long.bitCount(low), k = random.nextInt(lowCount + Long.bitCount(high));
+        long word = k < lowCount ? low : high;
+
+        for (int i = k < lowCount ? k : k - lowCount; i > 0; i--) {
+
+            word &= word - 1;
+
+        }
+
+        return (k < lowCount ? 0 : 64) + Long.numberOfTrailingZeros(word);
+
+    }
+
+    private static long shiftLeftLow(long low, int n) {
+        return n >= 64 ? 0L : low << n;
+    }
+
+    private static long shiftLeftHigh(long low, long high, int n) {
+        return n >= 64 ? low << (n - 64) : (high << n) | (low >>> (64 - n));
+    }
+
+    private static long shiftRightLow(long low, long high, int n) {
+        return n >= 64 ? high >>> (n - 64) : (low >>> n) | (high << (64 - n));
+    }
+
+    private static long shiftRightHigh(long high, int n) {
+        return n >= 64 ? 0L : high >>> n;
+    }
+
+    public void shotResult(Position position, ShotStatus status) {
+        this.tracker.shotResult(position, status);
+    }
+
+    public void opponentShot(Position position) {}
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
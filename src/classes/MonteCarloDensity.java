@@ -0,0 +1,300 @@
+package classes;
+
+import enums.ShotStatus;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimates how likely each cell is to hold a ship by sampling whole fleet layouts that agree with the shots taken so
+ * far: no ship crosses a MISS or the cells of a ship already sunk, and every other hit is covered. Unlike the density
+ * grid, this accounts for ships blocking one another and for hits that still need explaining.
+ *
+ * Sampling is spread over a fork/join pool, each worker with its own random number generator and its own counts, which
+ * are added into a shared array without locking when the worker finishes. Sampling stops at a time limit or once
+ * enough layouts have been found, whichever comes first. A sampler holds no state between calls, so one can be shared
+ * by any number of players.
+ */
+class MonteCarloDensity {
+
+    /**
+     * The number of random placements tried for a ship before the layout is abandoned
+     */
+    private static final int ATTEMPTS = 64;
+
+    private final long timeLimit;
+    private final int sampleLimit;
+    private final ForkJoinPool pool;
+    private final SplittableRandom seeds;
+
+    /**
+     * @param timeLimit The longest a single estimate may take, in nanoseconds
+     * @param sampleLimit The number of layouts after which an estimate stops early
+     */
+    MonteCarloDensity(long timeLimit, int sampleLimit) {
+        this(timeLimit, sampleLimit, ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    /**
+     * @param timeLimit The longest a single estimate may take, in nanoseconds
+     * @param sampleLimit The number of layouts after which an estimate stops early
+     * @param pool The pool to sample on; one worker is started per unit of parallelism
+     * @param seeds The source of each worker's random number generator
+     */
+    MonteCarloDensity(long timeLimit, int sampleLimit, ForkJoinPool pool, SplittableRandom seeds) {
+
+        this.timeLimit = timeLimit;
+        this.sampleLimit = sampleLimit;
+        this.pool = pool;
+        this.seeds = seeds;
+
+    }
+
+    /**
+     * @param shots The shots taken so far
+     * @param sunkCells The cells of ships known to have been sunk, one bit per cell
+     * @param fleet The lengths of the ships still afloat
+     *
+     * @return the number of sampled layouts with a ship on each cell, or null if no layout was found in time
+     */
+    long[] sample(ShotBoard shots, long[] sunkCells, int[] fleet) {
+
+        if (fleet.length == 0) return null;
+
+        BoardSize size = shots.getSize();
+        int words = (size.getCells() + 63) >>> 6;
+        long[] blocked = new long[words], hits = new long[words];
+
+        for (int word = 0; word < words; word++) {
+
+            blocked[word] = shots.getMask(ShotStatus.MISS, word) | sunkCells[word];
+            hits[word] = (shots.getMask(ShotStatus.HIT, word) | shots.getMask(ShotStatus.SUNK, word)) & ~sunkCells[word];
+
+        }
+
+        PlacementTable[] tables = new PlacementTable[fleet.length];
+
+        for (int i = 0; i < fleet.length; i++) {
+
+            tables[i] = PlacementTable.of(size, fleet[i]);
+
+        }
+
+        long deadline = System.nanoTime() + this.timeLimit;
+        AtomicLongArray counts = new AtomicLongArray(size.getCells());
+        AtomicInteger samples = new AtomicInteger();
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[this.pool.getParallelism()];
+
+        for (int w = 0; w < workers.length; w++) {
+
+            SplittableRandom random;
+
+            synchronized (this.seeds) {
+
+                random = this.seeds.split();
+
+            }
+
+            workers[w] = this.pool.submit(() -> this.work(tables, blocked, hits, random, deadline, samples, counts));
+
+        }
+
+        for (ForkJoinTask<?> worker: workers) {
+
+            worker.join();
+
+        }
+
+        if (samples.get() == 0) return null;
+
+        long[] result = new long[size.getCells()];
+
+        for (int c = 0; c < result.length; c++) {
+
+            result[c] = counts.get(c);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Samples layouts until the deadline passes or enough have been found, then adds its counts to the shared ones
+     */
+    private void work(PlacementTable[] tables, long[] blocked, long[] hits, SplittableRandom random, long deadline,
+                      AtomicInteger samples, AtomicLongArray counts) {
+
+        int cells = tables[0].getSize().getCells();
+        int[] local = new int[cells], chosen = new int[tables.length];
+        long[] occupied = new long[blocked.length], uncovered = new long[hits.length];
+
+        while (samples.get() < this.sampleLimit && System.nanoTime() < deadline) {
+
+            if (!MonteCarloDensity.layout(tables, blocked, hits, random, occupied, uncovered, chosen)) continue;
+
+            if (samples.getAndIncrement() >= this.sampleLimit) break;
+
+            for (int i = 0; i < tables.length; i++) {
+
+                for (int offset = 0; offset < tables[i].getLength(); offset++) {
+
+                    local[tables[i].getCell(chosen[i], offset)]++;
+
+                }
+
+            }
+
+        }
+
+        for (int c = 0; c < cells; c++) {
+
+            if (local[c] != 0) counts.addAndGet(c, local[c]);
+
+        }
+
+    }
+
+    /**
+     * Attempts to build one layout. Ships are first placed through hits that are not yet covered, and the rest are
+     * placed at random wherever they fit.
+     *
+     * @param chosen Receives the placement of each ship, indexed as tables
+     *
+     * @return true if a layout covering every hit was found
+     */
+    static boolean layout(PlacementTable[] tables, long[] blocked, long[] hits, SplittableRandom random,
+                          long[] occupied, long[] uncovered, int[] chosen) {
+
+        System.arraycopy(blocked, 0, occupied, 0, blocked.length);
+        System.arraycopy(hits, 0, uncovered, 0, hits.length);
+
+        for (int i = 0; i < chosen.length; i++) {
+
+            chosen[i] = -1;
+
+        }
+
+        for (int word = 0; word < uncovered.length; word++) {
+
+            while (uncovered[word] != 0) {
+
+                int hit = (word << 6) + Long.numberOfTrailingZeros(uncovered[word]);
+
+                if (!MonteCarloDensity.cover(tables, hit, random, occupied, uncovered, chosen)) return false;
+
+            }
+
+        }
+
+        for (int i = 0; i < tables.length; i++) {
+
+            if (chosen[i] >= 0) continue;
+
+            PlacementTable table = tables[i];
+            int attempt = 0;
+
+            while (attempt < ATTEMPTS && table.getCount() > 0) {
+
+                int p = random.nextInt(table.getCount());
+
+                if (MonteCarloDensity.fits(table, p, occupied)) {
+
+                    MonteCarloDensity.place(table, p, occupied, uncovered);
+                    chosen[i] = p;
+
+                    break;
+
+                }
+
+                attempt++;
+
+            }
+
+            if (chosen[i] < 0) return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Places an unplaced ship, chosen at random, through a hit
+     *
+     * @return false if no unplaced ship can cover the hit
+     */
+    private static boolean cover(PlacementTable[] tables, int hit, SplittableRandom random, long[] occupied,
+                                 long[] uncovered, int[] chosen) {
+
+        int start = random.nextInt(tables.length);
+
+        for (int k = 0; k < tables.length; k++) {
+
+            int i = (start + k) % tables.length;
+            PlacementTable table = tables[i];
+
+            if (chosen[i] >= 0) continue;
+
+            int through = table.getThroughCount(hit);
+
+            if (through == 0) continue;
+
+            int offset = random.nextInt(through);
+
+            for (int j = 0; j < through; j++) {
+
+                int p = table.getThrough(hit, (offset + j) % through);
+
+                if (!MonteCarloDensity.fits(table, p, occupied)) continue;
+
+                MonteCarloDensity.place(table, p, occupied, uncovered);
+                chosen[i] = p;
+
+                return true;
+
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * @return true if none of the cells of the placement is occupied
+     */
+    private static boolean fits(PlacementTable table, int placement, long[] occupied) {
+
+        for (int offset = 0; offset < table.getLength(); offset++) {
+
+            int cell = table.getCell(placement, offset);
+
+            if ((occupied[cell >>> 6] & (1L << cell)) != 0) return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Marks the cells of the placement as occupied and covered
+     */
+    private static void place(PlacementTable table, int placement, long[] occupied, long[] uncovered) {
+
+        for (int offset = 0; offset < table.getLength(); offset++) {
+
+            int cell = table.getCell(placement, offset);
+
+            occupied[cell >>> 6] |= 1L << cell;
+            uncovered[cell >>> 6] &= ~(1L << cell);
+
+        }
+
+    }
+
+}
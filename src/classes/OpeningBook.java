@@ -0,0 +1,151 @@
+package classes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Precomputed hunt-mode shots for the opening of a game, built by OpeningBookBuilder. The book is a file of entries,
+ * each the canonical hash of a set of shots and the shot the density grid chooses there, under the canonical symmetry,
+ * sorted by hash:
+ *
+ * <pre>
+ * int magic, int version, int width, int height, long signature, int count
+ * count * (long hash, int cell)
+ * </pre>
+ *
+ * The shots are those the density grid chooses when it scans the board under the canonical symmetry, so a book holds
+ * good for every rotation and reflection of its states. Books from version 1, whose shots were chosen on the board as
+ * it stood, are not read and must be rebuilt.
+ *
+ * The book to use is named by the system property battleships.openingBook. It is only opened, and then memory-mapped
+ * rather than read, the first time a player looks a shot up, so a game that never asks costs nothing.
+ */
+class OpeningBook {
+
+    static final String PROPERTY = "battleships.openingBook";
+
+    static final int MAGIC = 0x42534F42, VERSION = 2, HEADER = 28, ENTRY = 12;
+
+    private static final OpeningBook EMPTY = new OpeningBook();
+
+    private final ByteBuffer entries;
+    private final long signature;
+    private final int count;
+
+    /**
+     * Holds the book named by the system property, which is only opened when this class is first used
+     */
+    private static final class Holder {
+
+        private static final OpeningBook BOOK = OpeningBook.open(System.getProperty(PROPERTY));
+
+    }
+
+    private OpeningBook() {
+
+        this.entries = null;
+        this.signature = 0;
+        this.count = 0;
+
+    }
+
+    /**
+     * @param path The book to map
+     *
+     * @throws IOException if the book cannot be read or is not a book
+     */
+    OpeningBook(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+
+                throw new IOException("Not an opening book: " + path);
+
+            }
+
+            this.signature = buffer.getLong(16);
+            this.count = buffer.getInt(24);
+
+            if (buffer.limit() < HEADER + (long) this.count * ENTRY) throw new IOException("Opening book truncated: " + path);
+
+            this.entries = buffer;
+
+        }
+
+    }
+
+    /**
+     * @return the book at the path, or an empty book if there is no path or the book cannot be read
+     */
+    private static OpeningBook open(String path) {
+
+        if (path == null || !Files.isRegularFile(Paths.get(path))) return EMPTY;
+
+        try {
+
+            return new OpeningBook(Paths.get(path));
+
+        } catch (IOException e) {
+
+            System.out.println("Error loading opening book: " + e.toString());
+
+            return EMPTY;
+
+        }
+
+    }
+
+    /**
+     * @param hash The canonical hash of the shots
+     * @param signature The signature of the board size and ships afloat
+     *
+     * @return the shot for the state in the book named by the system property, under the canonical symmetry, or -1 if
+     * there is none
+     */
+    static int lookup(long hash, long signature) {
+        return Holder.BOOK.find(hash, signature);
+    }
+
+    /**
+     * @param hash The canonical hash of the shots
+     * @param signature The signature of the board size and ships afloat
+     *
+     * @return the shot for the state, under the canonical symmetry, or -1 if the book does not have it
+     */
+    int find(long hash, long signature) {
+
+        if (this.count == 0 || signature != this.signature) return -1;
+
+        int low = 0, high = this.count - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            long key = this.entries.getLong(HEADER + mid * ENTRY);
+
+            if (key < hash) low = mid + 1;
+            else if (key > hash) high = mid - 1;
+            else return this.entries.getInt(HEADER + mid * ENTRY + 8);
+
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * @return the number of states in the book
+     */
+    int size() {
+        return this.count;
+    }
+
+}
@@ -0,0 +1,141 @@
+package classes;
+
+import enums.ShotStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an opening book for ComputerPlayer on a standard board. Every sequence of MISS and HIT outcomes is played out
+ * to the given number of shots; wherever the player is hunting rather than chasing a hit, the shot its density grid
+ * chooses is recorded. Usage:
+ *
+ * <pre>
+ * java classes.OpeningBookBuilder book.bin [depth]
+ * </pre>
+ */
+class OpeningBookBuilder {
+
+    private final Map<Long, Integer> book = new HashMap<>();
+    private final int depth;
+    private long signature;
+
+    private OpeningBookBuilder(int depth) {
+        this.depth = depth;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 1) {
+
+            System.out.println("Usage: java classes.OpeningBookBuilder <file> [depth]");
+
+            return;
+
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+        long start = System.nanoTime();
+
+        builder.explore(new ArrayList<>());
+        builder.write(args[0]);
+
+        System.out.println(String.format(
+                "Wrote %d states to %s in %.1f s", builder.book.size(), args[0], (System.nanoTime() - start) / 1e9
+        ));
+
+    }
+
+    /**
+     * Replays a sequence of shots into a fresh player, records its choice if it is hunting, and explores both outcomes
+     * of that choice
+     *
+     * @param history The shots so far, each a cell and the ordinal of its outcome
+     */
+    private void explore(List<int[]> history) {
+
+        ComputerPlayer player = new ComputerPlayer("Book");
+
+        for (int[] shot: history) {
+
+            player.shotResult(BoardSize.STANDARD.position(shot[0]), ShotStatus.values()[shot[1]]);
+
+        }
+
+        this.signature = player.getSignature();
+
+        ShotBoard shots = player.getShots();
+        int symmetry = shots.getCanonicalSymmetry();
+        long hash = shots.getHash(symmetry);
+        boolean hunting = player.isHunting();
+
+        // A state already reached by another route, or a rotation or reflection of one, has been explored from there
+
+        if (hunting && this.book.containsKey(hash)) return;
+
+        Position p = player.chooseShot();
+
+        if (p == null) return;
+
+        int cell = BoardSize.STANDARD.index(p);
+
+        if (hunting) this.book.put(hash, BoardSize.STANDARD.transform(cell, symmetry));
+
+        if (history.size() == this.depth) return;
+
+        for (ShotStatus outcome: new ShotStatus[]{ShotStatus.MISS, ShotStatus.HIT}) {
+
+            history.add(new int[]{cell, outcome.ordinal()});
+
+            this.explore(history);
+
+            history.remove(history.size() - 1);
+
+        }
+
+    }
+
+    /**
+     * Writes the book in the format read by OpeningBook
+     */
+    private void write(String filename) throws IOException {
+
+        long[] hashes = new long[this.book.size()];
+        int i = 0;
+
+        for (long hash: this.book.keySet()) {
+
+            hashes[i++] = hash;
+
+        }
+
+        Arrays.sort(hashes);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(BoardSize.STANDARD.getWidth());
+            out.writeInt(BoardSize.STANDARD.getHeight());
+            out.writeLong(this.signature);
+            out.writeInt(hashes.length);
+
+            for (long hash: hashes) {
+
+                out.writeLong(hash);
+                out.writeInt(this.book.get(hash));
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,384 @@
+package classes;
+
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Learns where each opponent tends to put their ships. At the end of every game the layouts on both boards are counted,
+ * per cell and per placement of each ship length, under the name of the player who placed them and the size of the
+ * board. A ComputerPlayer told who it is playing weights its density grid by how much more often than chance that
+ * opponent has used each cell. Games on boards of more than MAX_CELLS cells are not counted, as the counts would take
+ * more memory than the game itself.
+ *
+ * Counts are LongAdders, so games finishing on many threads at once update them without contending for a lock. The
+ * model is kept in memory only, unless the system property battleships.opponentModel names a file to keep it in; the
+ * file is then read when the model is first used and written after every game.
+ */
+class OpponentModel {
+
+    static final String PROPERTY = "battleships.opponentModel";
+
+    static final int MAGIC = 0x4253504D, VERSION = 1;
+
+    /**
+     * The largest board, in cells, on which games are counted. A profile holds a counter per cell and two or so per
+     * cell for each ship length, some 5 MB at this size for the standard fleet.
+     */
+    static final int MAX_CELLS = 1 << 14;
+
+    /**
+     * The number of imaginary games, with ships spread evenly, that a profile starts with, so that a few real games
+     * only nudge the prior
+     */
+    private static final int PSEUDO_GAMES = 5;
+
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final Path path;
+
+    /**
+     * Holds the model in the file named by the system property, if any, which is only read when this class is first
+     * used
+     */
+    private static final class Holder {
+
+        private static final OpponentModel MODEL = OpponentModel.open(System.getProperty(PROPERTY));
+
+    }
+
+    /**
+     * The counts for one opponent on one size of board
+     */
+    static final class Profile {
+
+        private final BoardSize size;
+        private final LongAdder games = new LongAdder(), shipCells = new LongAdder();
+        private final LongAdder[] cells;
+
+        /**
+         * The counts of each placement, by ship length, indexed as in the PlacementTable of that length
+         */
+        private final Map<Integer, LongAdder[]> placements = new ConcurrentHashMap<>();
+
+        private Profile(BoardSize size) {
+
+            this.size = size;
+            this.cells = new LongAdder[size.getCells()];
+
+            for (int c = 0; c < this.cells.length; c++) {
+
+                this.cells[c] = new LongAdder();
+
+            }
+
+        }
+
+        /**
+         * Counts the layout on a board with every ship placed
+         */
+        void record(BoardInterface board) {
+
+            for (Map.Entry<Placement, ShipInterface> entry: board.getShips().entrySet()) {
+
+                int length = entry.getValue().getSize();
+                PlacementTable table = PlacementTable.of(this.size, length);
+                int p = table.indexOf(this.size.index(entry.getKey().getPosition()), entry.getKey().isVertical());
+
+                if (p < 0) continue;
+
+                this.getPlacements(length)[p].increment();
+
+                for (int offset = 0; offset < length; offset++) {
+
+                    this.cells[table.getCell(p, offset)].increment();
+
+                }
+
+                this.shipCells.add(length);
+
+            }
+
+            this.games.increment();
+
+        }
+
+        long getGames() {
+            return this.games.sum();
+        }
+
+        /**
+         * @return the counters of the placements of ships of the length, creating them on first use
+         */
+        private LongAdder[] getPlacements(int length) {
+
+            return this.placements.computeIfAbsent(length, l -> {
+
+                LongAdder[] counts = new LongAdder[PlacementTable.of(this.size, l).getCount()];
+
+                for (int p = 0; p < counts.length; p++) {
+
+                    counts[p] = new LongAdder();
+
+                }
+
+                return counts;
+
+            });
+
+        }
+
+        /**
+         * @param length The length of the ship
+         * @param placement The index of the placement in the PlacementTable of that length
+         *
+         * @return the number of times a ship of the length has been recorded in the placement
+         */
+        long getPlacementCount(int length, int placement) {
+
+            LongAdder[] counts = this.placements.get(length);
+
+            return counts == null ? 0 : counts[placement].sum();
+
+        }
+
+        /**
+         * @return the number of recorded games with a ship on the cell
+         */
+        long getCellCount(int cell) {
+            return this.cells[cell].sum();
+        }
+
+        /**
+         * @return for each cell, how many times more often than if ships were spread evenly a ship has been recorded
+         * there, smoothed towards 1; or null if no game has been recorded
+         */
+        double[] getPrior() {
+
+            long games = this.getGames(), shipCells = this.shipCells.sum();
+
+            if (games == 0 || shipCells == 0) return null;
+
+            double expected = (double) shipCells / games / this.cells.length;
+            double[] prior = new double[this.cells.length];
+
+            for (int c = 0; c < prior.length; c++) {
+
+                prior[c] = (this.getCellCount(c) + PSEUDO_GAMES * expected) / ((games + PSEUDO_GAMES) * expected);
+
+            }
+
+            return prior;
+
+        }
+
+    }
+
+    /**
+     * @param path The file to keep the model in, or null to keep it in memory only
+     */
+    OpponentModel(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the model in the file named by the system property
+     */
+    static OpponentModel shared() {
+        return Holder.MODEL;
+    }
+
+    /**
+     * @return the model in the file, a new model kept there if the file does not exist or cannot be read, or a model
+     * kept in memory only if there is no file
+     */
+    private static OpponentModel open(String filename) {
+
+        if (filename == null || filename.isEmpty()) return new OpponentModel(null);
+
+        OpponentModel model = new OpponentModel(Paths.get(filename));
+
+        if (!Files.isRegularFile(model.path)) return model;
+
+        try {
+
+            model.load();
+
+        } catch (IOException e) {
+
+            System.out.println("Error loading opponent model: " + e.toString());
+
+            model.profiles.clear();
+
+        }
+
+        return model;
+
+    }
+
+    /**
+     * @param name The name of the player, as given by its toString
+     *
+     * @return the counts for the player on boards of the size, creating them on first use
+     */
+    Profile getProfile(String name, BoardSize size) {
+        return this.profiles.computeIfAbsent(name + "@" + size, k -> new Profile(size));
+    }
+
+    /**
+     * @param name The name of the player who placed the ships
+     * @param board A board with every ship placed; it is not counted if it has more than MAX_CELLS cells
+     */
+    void record(String name, BoardInterface board) {
+
+        if (board.getSize().getCells() > MAX_CELLS) return;
+
+        this.getProfile(name, board.getSize()).record(board);
+
+    }
+
+    /**
+     * @return the prior for the opponent on boards of the size, or null if no game of theirs has been recorded
+     */
+    double[] getPrior(String name, BoardSize size) {
+
+        Profile profile = this.profiles.get(name + "@" + size);
+
+        return profile == null ? null : profile.getPrior();
+
+    }
+
+    /**
+     * Writes the model to its file, by way of a temporary file so that a failed write leaves the old model intact. Does
+     * nothing if the model is kept in memory only.
+     */
+    synchronized void save() throws IOException {
+
+        if (this.path == null) return;
+
+        Path temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.profiles.size());
+
+            for (Map.Entry<String, Profile> entry: this.profiles.entrySet()) {
+
+                Profile profile = entry.getValue();
+
+                out.writeUTF(entry.getKey().substring(0, entry.getKey().lastIndexOf('@')));
+                out.writeInt(profile.size.getWidth());
+                out.writeInt(profile.size.getHeight());
+                out.writeLong(profile.getGames());
+                out.writeLong(profile.shipCells.sum());
+
+                for (LongAdder cell: profile.cells) {
+
+                    out.writeLong(cell.sum());
+
+                }
+
+                out.writeInt(profile.placements.size());
+
+                for (Map.Entry<Integer, LongAdder[]> placements: profile.placements.entrySet()) {
+
+                    out.writeInt(placements.getKey());
+                    out.writeInt(placements.getValue().length);
+
+                    for (LongAdder placement: placements.getValue()) {
+
+                        out.writeLong(placement.sum());
+
+                    }
+
+                }
+
+            }
+
+        }
+
+        Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING);
+
+    }
+
+    /**
+     * Adds the counts in the model's file to this model
+     *
+     * @throws IOException if the file cannot be read or is not a model
+     */
+    void load() throws IOException {
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not an opponent model: " + this.path);
+
+            int count = in.readInt();
+
+            for (int i = 0; i < count; i++) {
+
+                String name = in.readUTF();
+                BoardSize size;
+
+                try {
+
+                    size = new BoardSize(in.readInt(), in.readInt());
+
+                } catch (IllegalArgumentException e) {
+
+                    throw new IOException("Invalid board size in opponent model: " + this.path, e);
+
+                }
+
+                if (size.getCells() > MAX_CELLS) throw new IOException("Board too large in opponent model: " + this.path);
+
+                Profile profile = this.getProfile(name, size);
+
+                profile.games.add(in.readLong());
+                profile.shipCells.add(in.readLong());
+
+                for (LongAdder cell: profile.cells) {
+
+                    cell.add(in.readLong());
+
+                }
+
+                int lengths = in.readInt();
+
+                for (int l = 0; l < lengths; l++) {
+
+                    int length = in.readInt(), placements = in.readInt();
+
+                    if (length < 1 || length > Math.max(size.getWidth(), size.getHeight()) || placements != PlacementTable.of(size, length).getCount()) {
+
+                        throw new IOException("Invalid placement counts in opponent model: " + this.path);
+
+                    }
+
+                    for (LongAdder placement: profile.getPlacements(length)) {
+
+                        placement.add(in.readLong());
+
+                    }
+
+                }
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,258 @@
+package classes;
+
+import exceptions.InvalidPositionException;
+import exceptions.PauseException;
+import exceptions.ShipOverlapException;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * Chooses fleet layouts that are hard to find. Many random layouts are drawn, each is hunted down several times by the
+ * simulated hunters in a pool, taking turns, and the layout that survives longest is kept. A layout scores the mean of
+ * the shots its hunts needed plus the mean of the fewest quarter of them, so that a layout sometimes found quickly is
+ * marked down even if it usually survives.
+ *
+ * By default the hunters are ComputerPlayers whose density grids are weighted by a little random noise, so that each
+ * hunt of a layout takes its own path, as different opponents would. Simulated ComputerPlayers are given a shot cache
+ * of the optimizer's own, so that they never fill the one shared by real players.
+ *
+ * Layouts are scored in parallel across a fork/join pool, and scoring stops at a time limit. One optimizer can be
+ * shared by any number of players.
+ */
+class PlacementOptimizer {
+
+    /**
+     * The most shots a simulated hunter may take before it is stopped
+     */
+    private static final int MAX_SHOTS = 1 << 20;
+
+    /**
+     * The number of times each layout is hunted by default
+     */
+    private static final int SAMPLES = 8;
+
+    /**
+     * How far the default hunters' weight for a cell may stray from 1, either way
+     */
+    private static final double NOISE = 0.2;
+
+    private final int candidates, samples;
+    private final long timeLimit;
+    private final ForkJoinPool pool;
+    private final Random random;
+    private final List<BiFunction<BoardSize, int[], PlayerInterface>> hunters;
+    private final ShotCache cache = new ShotCache(1 << 16);
+
+    /**
+     * A fleet layout on a board of a given size
+     */
+    private static final class Layout {
+
+        private final BoardSize size;
+        private final int[] fleet;
+        private final Placement[] placements;
+
+        private Layout(BoardSize size, int[] fleet, Placement[] placements) {
+
+            this.size = size;
+            this.fleet = fleet;
+            this.placements = placements;
+
+        }
+
+    }
+
+    /**
+     * Hunts each layout SAMPLES times with ComputerPlayers weighted by random noise
+     *
+     * @param candidates The number of layouts drawn for each choice
+     * @param timeLimit The longest a choice may take, in nanoseconds
+     */
+    PlacementOptimizer(int candidates, long timeLimit) {
+
+        this(candidates, timeLimit, SAMPLES, ForkJoinPool.commonPool(), new Random(), Collections.singletonList(
+                PlacementOptimizer::noisyHunter
+        ));
+
+    }
+
+    /**
+     * @param candidates The number of layouts drawn for each choice
+     * @param timeLimit The longest a choice may take, in nanoseconds
+     * @param samples The number of times each layout is hunted, the hunters taking turns
+     * @param pool The pool to score layouts on
+     * @param random The source of the layouts drawn
+     * @param hunters Create a fresh hunter for a board size and fleet
+     */
+    PlacementOptimizer(int candidates, long timeLimit, int samples, ForkJoinPool pool, Random random,
+                       List<BiFunction<BoardSize, int[], PlayerInterface>> hunters) {
+
+        this.candidates = candidates;
+        this.timeLimit = timeLimit;
+        this.samples = samples;
+        this.pool = pool;
+        this.random = random;
+        this.hunters = new ArrayList<>(hunters);
+
+    }
+
+    /**
+     * @return a ComputerPlayer that weights each cell of its density grid by a random amount between 1 - NOISE and
+     * 1 + NOISE
+     */
+    private static PlayerInterface noisyHunter(BoardSize size, int[] fleet) {
+
+        ComputerPlayer hunter = new ComputerPlayer("Hunter", size, fleet);
+        double[] weights = new double[size.getCells()];
+        Random random = ThreadLocalRandom.current();
+
+        for (int c = 0; c < weights.length; c++) {
+
+            weights[c] = 1 + NOISE * (2 * random.nextDouble() - 1);
+
+        }
+
+        hunter.setPrior(weights);
+
+        return hunter;
+
+    }
+
+    /**
+     * @param size The dimensions of the board
+     * @param fleet The lengths of the ships, in the order they are placed
+     *
+     * @return the most survivable layout found, a placement per ship in fleet order
+     *
+     * @throws IllegalArgumentException if the board is too large to list its placements, or the fleet cannot be fitted
+     * onto it
+     */
+    Placement[] optimize(BoardSize size, int[] fleet) {
+
+        List<Placement[]> layouts;
+
+        synchronized (this.random) {
+
+            layouts = new PlacementSampler(this.random).generate(this.candidates, size, fleet);
+
+        }
+
+        long deadline = System.nanoTime() + this.timeLimit;
+        double[] results = new double[layouts.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < layouts.size(); i++) {
+
+            int index = i;
+
+            tasks.add(this.pool.submit(() -> {
+
+                results[index] = System.nanoTime() < deadline
+                        ? this.score(new Layout(size, fleet.clone(), layouts.get(index)))
+                        : Double.NEGATIVE_INFINITY;
+
+            }));
+
+        }
+
+        for (ForkJoinTask<?> task: tasks) {
+
+            task.join();
+
+        }
+
+        // Should nothing be scored in time, the first layout is as good as any
+
+        int best = 0;
+
+        for (int i = 1; i < results.length; i++) {
+
+            if (results[i] > results[best]) best = i;
+
+        }
+
+        return layouts.get(best);
+
+    }
+
+    /**
+     * @return the mean of the shots needed over every hunt of the layout, plus the mean of the fewest quarter of them
+     */
+    private double score(Layout layout) {
+
+        int[] shots = new int[this.samples];
+        double total = 0, fewest = 0;
+
+        for (int k = 0; k < this.samples; k++) {
+
+            PlayerInterface hunter = this.hunters.get(k % this.hunters.size()).apply(layout.size, layout.fleet);
+
+            if (hunter instanceof ComputerPlayer) ((ComputerPlayer) hunter).setCache(this.cache);
+
+            shots[k] = PlacementOptimizer.hunt(layout, hunter);
+            total += shots[k];
+
+        }
+
+        Arrays.sort(shots);
+
+        int tail = Math.max(1, this.samples / 4);
+
+        for (int k = 0; k < tail; k++) {
+
+            fewest += shots[k];
+
+        }
+
+        return total / this.samples + fewest / tail;
+
+    }
+
+    /**
+     * @return the number of shots the hunter needs to sink every ship in the layout
+     */
+    private static int hunt(Layout layout, PlayerInterface hunter) {
+
+        BoardInterface board = layout.size.equals(BoardSize.STANDARD) ? new BitBoard() : new Board(layout.size);
+        int shots = 0;
+
+        try {
+
+            for (int i = 0; i < layout.fleet.length; i++) {
+
+                Placement p = layout.placements[i];
+
+                board.placeShip(new Ship(layout.fleet[i]), p.getPosition(), p.isVertical());
+
+            }
+
+            while (!board.allSunk() && shots < MAX_SHOTS) {
+
+                Position p = hunter.chooseShot();
+
+                hunter.shotResult(p, board.fire(p).getStatus());
+                shots++;
+
+            }
+
+        } catch (InvalidPositionException | ShipOverlapException | PauseException e) {
+
+            System.out.println("Error simulating hunt: " + e.toString());
+
+        }
+
+        return shots;
+
+    }
+
+}
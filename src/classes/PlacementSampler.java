@@ -0,0 +1,235 @@
+package classes;
+
+import enums.ShipStatus;
+import exceptions.InvalidPositionException;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Places ships uniformly at random among the placements still open. Rather than trying random cells until one fits,
+ * the open placements are counted against a mask of the cells already taken and one of them is picked directly, so
+ * the cost does not grow as the board fills up.
+ *
+ * Boards of more than MAX_ENUMERATED cells are too large to list every placement; ships on them are placed by trying
+ * up to ATTEMPTS random cells, which is quick as long as the board stays mostly empty, and then by scanning the board
+ * for the first placement open from a random cell onwards.
+ */
+class PlacementSampler {
+
+    /**
+     * The most cells a board may have for its placements to be listed
+     */
+    static final int MAX_ENUMERATED = 1 << 16;
+
+    /**
+     * The number of random placements tried on a large board before scanning it
+     */
+    static final int ATTEMPTS = 1000;
+
+    private Random random;
+
+    /**
+     * @param random The source of randomness for every choice the sampler makes
+     */
+    PlacementSampler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @param ship The ship to place
+     * @param board The board to place it on, which is not changed
+     *
+     * @return a placement chosen uniformly from those open on the board, or null if there is none
+     */
+    Placement choose(ShipInterface ship, BoardInterface board) {
+
+        BoardSize size = board.getSize();
+
+        if (size.getCells() > MAX_ENUMERATED) {
+
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+
+                Position p = size.position(this.random.nextInt(size.getCells()));
+                boolean isVertical = this.random.nextBoolean();
+
+                if (board.canPlace(ship, p, isVertical)) return new Placement(p, isVertical);
+
+            }
+
+            return this.scan(ship, board);
+
+        }
+
+        long[] occupied = new long[(size.getCells() + 63) >>> 6];
+
+        for (int c = 0; c < size.getCells(); c++) {
+
+            try {
+
+                if (board.getStatus(c) != ShipStatus.NONE) occupied[c >>> 6] |= 1L << c;
+
+            } catch (InvalidPositionException e) {
+
+                System.out.println("Error reading board: " + e.toString());
+
+            }
+
+        }
+
+        PlacementTable table = PlacementTable.of(size, ship.getSize());
+        int p = this.pick(table, occupied);
+
+        return p < 0 ? null : PlacementSampler.toPlacement(table, p);
+
+    }
+
+    /**
+     * @return the first placement open on the board from a random cell onwards, wrapping round to the start, or null if
+     * there is none
+     */
+    private Placement scan(ShipInterface ship, BoardInterface board) {
+
+        BoardSize size = board.getSize();
+        int start = this.random.nextInt(size.getCells());
+
+        for (int i = 0; i < size.getCells(); i++) {
+
+            Position p = size.position((start + i) % size.getCells());
+
+            if (board.canPlace(ship, p, true)) return new Placement(p, true);
+
+            if (board.canPlace(ship, p, false)) return new Placement(p, false);
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Lays out whole fleets at random, each ship placed uniformly among the placements left open by those before it
+     *
+     * @param count The number of fleets to lay out
+     * @param size The dimensions of the board
+     * @param fleet The lengths of the ships, in the order they are placed
+     *
+     * @return the fleets, each a placement per ship in fleet order
+     *
+     * @throws IllegalArgumentException if the board is too large to list its placements, or the fleet cannot be fitted
+     * onto it
+     */
+    List<Placement[]> generate(int count, BoardSize size, int[] fleet) {
+
+        if (size.getCells() > MAX_ENUMERATED) throw new IllegalArgumentException("Board too large: " + size);
+
+        PlacementTable[] tables = new PlacementTable[fleet.length];
+        List<Placement[]> fleets = new ArrayList<>(count);
+        long[] occupied = new long[(size.getCells() + 63) >>> 6];
+
+        for (int i = 0; i < fleet.length; i++) {
+
+            tables[i] = PlacementTable.of(size, fleet[i]);
+
+        }
+
+        for (int failures = 0; fleets.size() < count; ) {
+
+            Placement[] placements = new Placement[fleet.length];
+            int placed = 0;
+
+            Arrays.fill(occupied, 0L);
+
+            for (; placed < fleet.length; placed++) {
+
+                int i = placed, p = this.pick(tables[i], occupied);
+
+                if (p < 0) break;
+
+                for (int offset = 0; offset < tables[i].getLength(); offset++) {
+
+                    int cell = tables[i].getCell(p, offset);
+
+                    occupied[cell >>> 6] |= 1L << cell;
+
+                }
+
+                placements[i] = PlacementSampler.toPlacement(tables[i], p);
+
+            }
+
+            // A crowded board can leave no room for a later ship, in which case the fleet is started again
+
+            if (placed == fleet.length) {
+
+                fleets.add(placements);
+
+            } else if (++failures > 1000 && fleets.isEmpty()) {
+
+                throw new IllegalArgumentException("Fleet does not fit on a " + size + " board");
+
+            }
+
+        }
+
+        return fleets;
+
+    }
+
+    /**
+     * @return a placement from the table chosen uniformly among those clear of the occupied cells, or -1 if there is
+     * none
+     */
+    private int pick(PlacementTable table, long[] occupied) {
+
+        int open = 0;
+
+        for (int p = 0; p < table.getCount(); p++) {
+
+            if (PlacementSampler.isOpen(table, p, occupied)) open++;
+
+        }
+
+        if (open == 0) return -1;
+
+        int k = this.random.nextInt(open);
+
+        for (int p = 0; p < table.getCount(); p++) {
+
+            if (PlacementSampler.isOpen(table, p, occupied) && k-- == 0) return p;
+
+        }
+
+        return -1;
+
+    }
+
+    private static boolean isOpen(PlacementTable table, int placement, long[] occupied) {
+
+        if (table.hasMasks()) {
+
+            return ((table.getMaskLow(placement) & occupied[0]) | (occupied.length > 1 ? table.getMaskHigh(placement) & occupied[1] : 0L)) == 0;
+
+        }
+
+        for (int offset = 0; offset < table.getLength(); offset++) {
+
+            int cell = table.getCell(placement, offset);
+
+            if ((occupied[cell >>> 6] & (1L << cell)) != 0) return false;
+
+        }
+
+        return true;
+
+    }
+
+    private static Placement toPlacement(PlacementTable table, int placement) {
+        return new Placement(table.getSize().position(table.getOrigin(placement)), table.isVertical(placement));
+    }
+
+}
@@ -0,0 +1,301 @@
+package classes;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every legal placement of a ship of one length on a board of one size, with the cells each placement covers and, for
+ * each cell, the placements that cover it. Tables are built once per size and length and never change afterwards, so a
+ * single copy is shared by every player on every thread.
+ *
+ * Placements are numbered row by row from the top/left cell of each, vertical before horizontal where both fit. On
+ * boards of up to PlacementSampler.MAX_ENUMERATED cells the cells of each placement and the placements through each
+ * cell are listed, as looking them up is quickest. On larger boards, where the lists would not fit in memory, they are
+ * worked out from the numbering instead, as every placement is an origin and a step of 1 or the width.
+ *
+ * On boards of up to 128 cells each placement also has a two-word mask, bit i being cell i, so that checking it
+ * against a set of shots is a pair of ANDs.
+ */
+final class PlacementTable {
+
+    private static final ConcurrentHashMap<Long, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+    private final BoardSize size;
+    private final int length, count, width;
+
+    /**
+     * The number of horizontal placements in each row, and the number of rows, from the top, in which vertical
+     * placements fit
+     */
+    private final int across, down;
+
+    /**
+     * The number of placements in each row in which vertical placements fit, and the number before the first row in
+     * which they do not
+     */
+    private final int rowCount, split;
+
+    /**
+     * The cells of placement p, at p * length to p * length + length - 1, or null if the board is too large
+     */
+    private final int[] cells;
+
+    /**
+     * The placements covering cell c, at through[starts[c]] to through[starts[c + 1] - 1], or null if the board is too
+     * large
+     */
+    private final int[] starts, through;
+
+    /**
+     * The low and high words of the mask of placement p, at 2 * p and 2 * p + 1, or null if the board is too large
+     */
+    private final long[] masks;
+
+    private PlacementTable(BoardSize size, int length) {
+
+        this.size = size;
+        this.length = length;
+        this.width = size.getWidth();
+
+        int height = size.getHeight();
+
+        this.across = length < 1 || length > this.width ? 0 : this.width - length + 1;
+        this.down = length < 1 || length > height ? 0 : height - length + 1;
+        this.rowCount = this.width + this.across;
+        this.split = this.down * this.rowCount;
+        this.count = this.split + (length < 1 ? 0 : (height - this.down) * this.across);
+        this.cells = size.getCells() <= PlacementSampler.MAX_ENUMERATED ? new int[this.count * Math.max(length, 0)] : null;
+        this.masks = size.getCells() <= 128 ? new long[this.count * 2] : null;
+
+        for (int p = 0; this.cells != null && p < this.count; p++) {
+
+            int origin = this.getOrigin(p), step = this.isVertical(p) ? this.width : 1;
+
+            for (int offset = 0; offset < length; offset++) {
+
+                int cell = origin + offset * step;
+
+                this.cells[p * length + offset] = cell;
+
+                if (this.masks != null) this.masks[2 * p + (cell >>> 6)] |= 1L << cell;
+
+            }
+
+        }
+
+        if (this.cells == null) {
+
+            this.starts = this.through = null;
+
+            return;
+
+        }
+
+        this.starts = new int[size.getCells() + 1];
+        this.through = new int[this.cells.length];
+
+        for (int c = 0; c < size.getCells(); c++) {
+
+            this.starts[c + 1] = this.starts[c] + this.countThrough(c);
+
+            for (int i = this.starts[c]; i < this.starts[c + 1]; i++) {
+
+                this.through[i] = this.findThrough(c, i - this.starts[c]);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * @param size The dimensions of the board
+     * @param length The length of the ship
+     *
+     * @return the shared table for that size and length, building it on first use
+     */
+    static PlacementTable of(BoardSize size, int length) {
+
+        long key = ((long) size.getWidth() << 40) | ((long) size.getHeight() << 20) | (length & 0xFFFFF);
+
+        return TABLES.computeIfAbsent(key, k -> new PlacementTable(size, length));
+
+    }
+
+    BoardSize getSize() {
+        return this.size;
+    }
+
+    int getLength() {
+        return this.length;
+    }
+
+    /**
+     * @return the number of placements
+     */
+    int getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return the top/left cell of the placement
+     */
+    int getOrigin(int placement) {
+
+        if (placement >= this.split) {
+
+            int q = placement - this.split;
+
+            return (this.down + q / this.across) * this.width + q % this.across;
+
+        }
+
+        int y = placement / this.rowCount, i = placement - y * this.rowCount;
+
+        return y * this.width + (i < 2 * this.across ? i >> 1 : i - this.across);
+
+    }
+
+    boolean isVertical(int placement) {
+
+        if (placement >= this.split) return false;
+
+        int i = placement % this.rowCount;
+
+        return i >= 2 * this.across || (i & 1) == 0;
+
+    }
+
+    /**
+     * @param origin The top/left cell of a placement
+     *
+     * @return the placement with that origin and orientation, or -1 if the ship does not fit there
+     */
+    int indexOf(int origin, boolean isVertical) {
+
+        if (origin < 0 || origin >= this.size.getCells()) return -1;
+
+        return this.indexOf(origin % this.width, origin / this.width, isVertical);
+
+    }
+
+    /**
+     * @param x The column of the top/left cell of a placement, from 0
+     * @param y The row of the top/left cell of a placement, from 0
+     *
+     * @return the placement with that origin and orientation, or -1 if the ship does not fit there
+     */
+    private int indexOf(int x, int y, boolean isVertical) {
+
+        if (this.count == 0) return -1;
+
+        if (y < this.down) {
+
+            if (isVertical) return y * this.rowCount + (x < this.across ? 2 * x : x + this.across);
+
+            return x < this.across ? y * this.rowCount + 2 * x + 1 : -1;
+
+        }
+
+        return isVertical || x >= this.across ? -1 : this.split + (y - this.down) * this.across + x;
+
+    }
+
+    /**
+     * @return the cell at the given offset from the top/left of the placement
+     */
+    int getCell(int placement, int offset) {
+
+        if (this.cells != null) return this.cells[placement * this.length + offset];
+
+        return this.getOrigin(placement) + offset * (this.isVertical(placement) ? this.width : 1);
+
+    }
+
+    /**
+     * @return true if the placements have masks, which is when the board has no more than 128 cells
+     */
+    boolean hasMasks() {
+        return this.masks != null;
+    }
+
+    /**
+     * @return the mask of cells 0-63 that the placement covers
+     */
+    long getMaskLow(int placement) {
+        return this.masks[2 * placement];
+    }
+
+    /**
+     * @return the mask of cells 64-127 that the placement covers
+     */
+    long getMaskHigh(int placement) {
+        return this.masks[2 * placement + 1];
+    }
+
+    /**
+     * @return the number of placements covering the cell
+     */
+    int getThroughCount(int cell) {
+        return this.starts != null ? this.starts[cell + 1] - this.starts[cell] : this.countThrough(cell);
+    }
+
+    /**
+     * @param i From 0 to getThroughCount(cell) - 1
+     *
+     * @return the i-th placement covering the cell, in order of placement
+     */
+    int getThrough(int cell, int i) {
+        return this.through != null ? this.through[this.starts[cell] + i] : this.findThrough(cell, i);
+    }
+
+    /**
+     * @return the number of placements covering the cell, worked out from the numbering
+     */
+    private int countThrough(int cell) {
+
+        int x = cell % this.width, y = cell / this.width;
+
+        return this.above(y) + this.before(x) + (y < this.down ? 1 : 0) + (x < this.across ? 1 : 0);
+
+    }
+
+    /**
+     * @return the i-th placement covering the cell, worked out from the numbering
+     */
+    private int findThrough(int cell, int i) {
+
+        int x = cell % this.width, y = cell / this.width;
+
+        // Vertical placements from the rows above come first, then those in the cell's own row from the left
+
+        int above = this.above(y);
+
+        if (i < above) return this.indexOf(x, Math.max(y - this.length + 1, 0) + i, true);
+
+        i -= above;
+
+        int before = this.before(x);
+
+        if (i < before) return this.indexOf(Math.max(x - this.length + 1, 0) + i, y, false);
+
+        i -= before;
+
+        return i == 0 && y < this.down ? this.indexOf(x, y, true) : this.indexOf(x, y, false);
+
+    }
+
+    /**
+     * @return the number of vertical placements through a cell in row y that start in a row above it
+     */
+    private int above(int y) {
+        return this.length < 1 ? 0 : Math.max(Math.min(y, this.down) - Math.max(y - this.length + 1, 0), 0);
+    }
+
+    /**
+     * @return the number of horizontal placements through a cell in column x that start in a column left of it
+     */
+    private int before(int x) {
+        return this.length < 1 ? 0 : Math.max(Math.min(x, this.across) - Math.max(x - this.length + 1, 0), 0);
+    }
+
+}
@@ -2,17 +2,91 @@ package classes;
 
 import exceptions.InvalidPositionException;
 
-import java.util.Objects;
-
 public class Position {
 
     // Except I didn't consolidate it in one place; I did so in both.
 
-    private int x, y;
-    
+    private int x, y, hash;
+
+    /**
+     * Every position from (1, 1) to (10, 10), indexed by cell, (y - 1) * 10 + (x - 1). Only this range, a standard
+     * board, is shared; positions outside it are created when asked for.
+     */
+    private static final Position[] POSITIONS = new Position[100];
+
+    static {
+
+        for (int i = 0; i < POSITIONS.length; i++) {
+
+            POSITIONS[i] = new Position(i % 10 + 1, i / 10 + 1, true);
+
+        }
+
+    }
+
     public Position(int x, int y) throws InvalidPositionException {
         setX(x);
         setY(y);
+        this.hash = 31 * (31 + x) + y;
+    }
+
+    /**
+     * Creates a position without validating it; only used to fill the table of positions
+     */
+    private Position(int x, int y, boolean trusted) {
+        this.x = x;
+        this.y = y;
+        this.hash = 31 * (31 + x) + y;
+    }
+
+    /**
+     * @param x the x position of the location
+     * @param y the y position of the location
+     *
+     * @return true if and only if both parameters are between 1 and BoardSize.MAX
+     */
+    public static boolean isValid(int x, int y) {
+        return x >= 1 && x <= BoardSize.MAX && y >= 1 && y <= BoardSize.MAX;
+    }
+
+    /**
+     * @param x the x position of the location. 1 is on the left
+     * @param y the y position of the location. 1 is at the top
+     *
+     * @return the position; positions from (1, 1) to (10, 10) are shared instances, and others are new
+     *
+     * @throws InvalidPositionException if either parameter is less than 1 or more than BoardSize.MAX
+     */
+    public static Position of(int x, int y) throws InvalidPositionException {
+
+        if (!Position.isValid(x, y)) throw new InvalidPositionException(x + "," + y, false);
+
+        return Position.at(x, y);
+
+    }
+
+    /**
+     * Only covers the 10x10 range of shared instances; on a board of another width, cells are turned into positions by
+     * BoardSize.position
+     *
+     * @param cell the index of the cell, (y - 1) * width + (x - 1), on a board 10 wide
+     *
+     * @return the shared instance for that cell
+     *
+     * @throws ArrayIndexOutOfBoundsException if the cell is less than 0 or more than 99
+     */
+    public static Position of(int cell) {
+        return POSITIONS[cell];
+    }
+
+    /**
+     * @param x the x position of the location, assumed to be valid
+     * @param y the y position of the location, assumed to be valid
+     *
+     * @return the shared instance for the position if there is one, otherwise a new position
+     */
+    static Position at(int x, int y) {
+        return x <= 10 && y <= 10 ? POSITIONS[(y - 1) * 10 + (x - 1)] : new Position(x, y, true);
     }
 
     int getX() {
@@ -24,14 +98,14 @@ public class Position {
     }
 
     /**
-     * @param x the x position of the location. 1 is on the left, 10 is on the right
-     * @throws InvalidPositionException if the parameter is less than 0 or more than 10
+     * @param x the x position of the location. 1 is on the left
+     * @throws InvalidPositionException if the parameter is less than 1 or more than BoardSize.MAX
      */
     private void setX(int x) throws InvalidPositionException {
 
-        if (x < 1 || x > 10) {
+        if (x < 1 || x > BoardSize.MAX) {
 
-            throw new InvalidPositionException(Integer.toString(x));
+            throw new InvalidPositionException(Integer.toString(x), false);
 
         }
 
@@ -40,14 +114,14 @@ public class Position {
     }
 
     /**
-     * @param y the y position of the location. 1 is at the top, 10 is at the bottom
-     * @throws InvalidPositionException if the parameter is less than 1 or more than 10
+     * @param y the y position of the location. 1 is at the top
+     * @throws InvalidPositionException if the parameter is less than 1 or more than BoardSize.MAX
      */
     private void setY(int y) throws InvalidPositionException {
 
-        if (y < 1 || y > 10) {
+        if (y < 1 || y > BoardSize.MAX) {
 
-            throw new InvalidPositionException(Integer.toString(y));
+            throw new InvalidPositionException(Integer.toString(y), false);
 
         }
 
@@ -77,7 +151,7 @@ public class Position {
     @Override
     public int hashCode() {
 
-        return Objects.hash(x, y);
+        return hash;
 
     }
 
@@ -0,0 +1,29 @@
+package classes;
+
+/**
+ * Adds placements to a density grid one cell at a time
+ */
+class ScalarDensityKernel implements DensityKernel {
+
+    public void accumulate(int[] grid, int[] starts, int length, int step) {
+
+        for (int k = 0; k < length; k++) {
+
+            int shift = k * step;
+
+            for (int c = shift; c < grid.length; c++) {
+
+                grid[c] += starts[c - shift];
+
+            }
+
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+
+}
@@ -4,44 +4,106 @@ import enums.ShipStatus;
 import exceptions.InvalidPositionException;
 import interfaces.ShipInterface;
 
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Ship implements ShipInterface {
 
-    private ShipStatus statuses[];
+    /**
+     * Bit i is set if and only if the cell at offset i has been hit
+     */
+    private int hits = 0;
+    private int size, sunk;
 
     Ship(int size) {
 
-        this.statuses = new ShipStatus[size];
-        Arrays.fill(this.statuses, ShipStatus.INTACT);
+        if (size < 0 || size > 31) throw new IllegalArgumentException("Invalid size: " + size);
+
+        this.size = size;
+        this.sunk = (1 << size) - 1;
 
     }
 
     Ship(ShipStatus[] statuses) {
-        this.statuses = statuses;
+
+        this(statuses.length);
+
+        for (int i = 0; i < statuses.length; i++) {
+
+            if (statuses[i] == ShipStatus.HIT || statuses[i] == ShipStatus.SUNK) this.hits |= 1 << i;
+
+        }
+
     }
 
-    public int getSize() {
-        return this.statuses.length;
+    /**
+     * @param ship The ship to copy
+     *
+     * @return a new ship with the same size and hits as the given one
+     */
+    static Ship copyOf(ShipInterface ship) {
+
+        Ship copy = new Ship(ship.getSize());
+
+        if (ship instanceof Ship) {
+
+            copy.hits = ((Ship) ship).hits;
+            return copy;
+
+        }
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            try {
+
+                if (ship.getStatus(i) != ShipStatus.INTACT) copy.hits |= 1 << i;
+
+            } catch (InvalidPositionException e) {
+
+                System.out.println("Error copying ship: " + e.toString());
+
+            }
+
+        }
+
+        return copy;
+
     }
 
     /**
-     * @return true if and only if every cell of the ship is SUNK
+     * @param ships The ships of a board, keyed by placement
+     *
+     * @return a read-only map of copies of the ships, in the same order, so that nothing done to it or to the ships in
+     * it reaches the board
      */
-    public boolean isSunk() {
+    static Map<Placement, ShipInterface> copyOf(Map<Placement, ShipInterface> ships) {
+
+        Map<Placement, ShipInterface> copies = new LinkedHashMap<>();
 
-        for (ShipStatus s : this.statuses) {
+        for (Map.Entry<Placement, ShipInterface> entry: ships.entrySet()) {
 
-            if (s != ShipStatus.SUNK) return false;
+            copies.put(entry.getKey(), Ship.copyOf(entry.getValue()));
 
         }
 
-        return true;
+        return Collections.unmodifiableMap(copies);
+
+    }
 
+    public int getSize() {
+        return this.size;
     }
 
     /**
-     * Change a cell of the ship as specified by offset to HIT. If all cells are HIT, update all to SUNK
+     * @return true if and only if every cell of the ship is SUNK
+     */
+    public boolean isSunk() {
+        return this.hits == this.sunk;
+    }
+
+    /**
+     * Change a cell of the ship as specified by offset to HIT. If all cells are HIT, they are all reported as SUNK
      *
      * @param offset The offset from the top/left of the ship
      *
@@ -49,17 +111,9 @@ public class Ship implements ShipInterface {
      */
     public void shoot(int offset) throws InvalidPositionException {
 
-        if (offset < 0 || offset >= this.getSize()) throw new InvalidPositionException("Invalid offset: " + offset);
-
-        this.statuses[offset] = ShipStatus.HIT;
+        if (offset < 0 || offset >= this.size) throw new InvalidPositionException("Invalid offset: " + offset);
 
-        for (ShipStatus s: this.statuses) {
-
-            if (s == ShipStatus.INTACT) return;
-
-        }
-
-        Arrays.fill(this.statuses, ShipStatus.SUNK);
+        this.hits |= 1 << offset;
 
     }
 
@@ -72,9 +126,11 @@ public class Ship implements ShipInterface {
      */
     public ShipStatus getStatus(int offset) throws InvalidPositionException {
 
-        if (offset < 0 || offset >= this.getSize()) throw new InvalidPositionException();
+        if (offset < 0 || offset >= this.size) throw new InvalidPositionException();
+
+        if (this.hits == this.sunk) return ShipStatus.SUNK;
 
-        return this.statuses[offset];
+        return (this.hits & (1 << offset)) != 0 ? ShipStatus.HIT : ShipStatus.INTACT;
 
     }
 
@@ -83,11 +139,12 @@ public class Ship implements ShipInterface {
 
         StringBuilder sb = new StringBuilder();
 
-        for (int i = 0; i < this.statuses.length; i++) {
+        for (int i = 0; i < this.size; i++) {
 
-            sb.append(this.statuses[i].toString());
+            if (this.hits == this.sunk) sb.append(ShipStatus.SUNK.toString());
+            else sb.append((this.hits & (1 << i)) != 0 ? ShipStatus.HIT.toString() : ShipStatus.INTACT.toString());
 
-            if (i != this.statuses.length - 1) sb.append(",");
+            if (i != this.size - 1) sb.append(",");
 
         }
 
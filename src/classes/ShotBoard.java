@@ -2,79 +2,288 @@ package classes;
 
 import enums.ShotStatus;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The shots a player has taken, held as one bitmask per shot status. Bit i of a mask is cell i of the board, and a cell
+ * that has not been shot at is in none of the masks. That is three bits per cell: under 40 bytes on a standard board,
+ * but some 37 MB on the largest, 10000x10000.
+ *
+ * The shots are also kept as a Zobrist hash, the XOR of a random key for each cell and status shot, updated with every
+ * shot. There is one hash for each symmetry of the board, hashing the shots as they would be if the board were rotated
+ * or reflected; the smallest identifies the shots the same way however the board is turned.
+ */
+public class ShotBoard implements Iterable<Map.Entry<Position, ShotStatus>> {
+
+    private static final ShotStatus[] STATUSES = ShotStatus.values();
+
+    private BoardSize size;
+
+    /**
+     * The words of the mask of cells with each status, indexed by ordinal * words + word
+     */
+    private long[] masks;
+    private int words, count = 0;
+
+    /**
+     * The hash of the shots under each symmetry of the board
+     */
+    private long[] hashes;
+
+    ShotBoard() {
+        this(BoardSize.STANDARD);
+    }
 
-public class ShotBoard {
+    /**
+     * @param size The dimensions of the board being shot at
+     */
+    ShotBoard(BoardSize size) {
 
-    private HashMap<Position, ShotStatus> shots = new HashMap<>();
+        this.size = size;
+        this.words = (size.getCells() + 63) >>> 6;
+        this.masks = new long[STATUSES.length * this.words];
+        this.hashes = new long[size.getSymmetries()];
 
-    void addShot(Position position, ShotStatus status) {
-        this.shots.put(position, status);
     }
 
-    HashMap<Position, ShotStatus> getShots() {
-        return this.shots;
+    /**
+     * @return the random key of a status at a cell, worked out from the two rather than looked up, so that no table
+     * is needed however large the board
+     */
+    private static long key(int cell, ShotStatus status) {
+
+        long z = ((long) cell << 2 | status.ordinal()) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+
     }
 
-    @Override
-    public String toString() {
+    /**
+     * @return the dimensions of the board being shot at
+     */
+    BoardSize getSize() {
+        return this.size;
+    }
 
-        String[][] board = new String[10][10];
+    void addShot(Position position, ShotStatus status) {
+        this.addShot(this.size.index(position), status);
+    }
 
-        for (int i = 0; i < 10; i++) {
+    /**
+     * @param cell The index of the cell, (y - 1) * width + (x - 1)
+     * @param status The result of the shot at that cell
+     */
+    void addShot(int cell, ShotStatus status) {
 
-            for (int j = 0; j < 10; j++) {
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        ShotStatus previous = this.getShot(cell);
 
-                board[i][j] = "_";
+        if (previous == null) this.count++;
+        else this.masks[previous.ordinal() * this.words + word] &= ~bit;
 
-            }
+        this.masks[status.ordinal() * this.words + word] |= bit;
 
-        }
+        for (int s = 0; s < this.hashes.length; s++) {
+
+            int image = this.size.transform(cell, s);
 
-        for (Map.Entry<Position, ShotStatus> entry: this.shots.entrySet()) {
+            if (previous != null) this.hashes[s] ^= ShotBoard.key(image, previous);
 
-            board[entry.getKey().getY() - 1][entry.getKey().getX() - 1] = entry.getValue().toString().substring(0, 1);
+            this.hashes[s] ^= ShotBoard.key(image, status);
 
         }
 
-        StringBuilder sb = new StringBuilder();
+    }
+
+    /**
+     * @param symmetry A symmetry of the board
+     *
+     * @return the hash of the shots as they would be with the board transformed by the symmetry
+     */
+    long getHash(int symmetry) {
+        return this.hashes[symmetry];
+    }
+
+    /**
+     * @return the symmetry under which the shots have the smallest hash; boards whose shots are rotations or
+     * reflections of each other share the same hash under their canonical symmetries
+     */
+    int getCanonicalSymmetry() {
 
-        sb.append("   ");
+        int canonical = 0;
 
-        for (int i = 0; i < 10; i ++) {
+        for (int s = 1; s < this.hashes.length; s++) {
 
-            sb.append(" ").append(i + 1);
+            if (this.hashes[s] < this.hashes[canonical]) canonical = s;
 
         }
 
-        sb.append("\n   ");
+        return canonical;
 
-        for (int i = 0; i < 10; i ++) {
+    }
+
+    /**
+     * @param cell The index of the cell, (y - 1) * width + (x - 1)
+     *
+     * @return the result of the shot at that cell, or null if it has not been shot at
+     */
+    ShotStatus getShot(int cell) {
+
+        int word = cell >>> 6;
+        long bit = 1L << cell;
 
-            sb.append(" ").append("_");
+        for (int i = 0; i < STATUSES.length; i++) {
+
+            if ((this.masks[i * this.words + word] & bit) != 0) return STATUSES[i];
 
         }
 
-        sb.append("\n");
+        return null;
+
+    }
+
+    /**
+     * @param cell The index of the cell, (y - 1) * width + (x - 1)
+     *
+     * @return true if the cell has been shot at
+     */
+    boolean contains(int cell) {
+        return this.getShot(cell) != null;
+    }
+
+    /**
+     * @param position A position on the board
+     *
+     * @return true if the position has been shot at
+     */
+    boolean contains(Position position) {
+        return this.contains(this.size.index(position));
+    }
+
+    /**
+     * @param status A shot status
+     * @param word The word of the mask, covering cells 64 * word to 64 * word + 63
+     *
+     * @return the mask of cells in that word whose shot had the given status
+     */
+    long getMask(ShotStatus status, int word) {
+        return this.masks[status.ordinal() * this.words + word];
+    }
+
+    /**
+     * @param status A shot status
+     *
+     * @return the words of the mask of cells whose shot had the given status
+     */
+    long[] getMask(ShotStatus status) {
+
+        long[] mask = new long[this.words];
 
-        for (int i = 0; i < board.length; i++) {
+        System.arraycopy(this.masks, status.ordinal() * this.words, mask, 0, this.words);
 
-            String[] row = board[i];
+        return mask;
+
+    }
+
+    /**
+     * @return the number of cells that have been shot at
+     */
+    int size() {
+        return this.count;
+    }
 
-            sb.append(i + 1).append(i == 9 ? "" : " ").append(" |");
+    /**
+     * @return an independent copy of the shots
+     */
+    ShotBoard copy() {
 
-            for (String cell: row) {
+        ShotBoard copy = new ShotBoard(this.size);
 
-                sb.append(cell).append("|");
+        copy.masks = this.masks.clone();
+        copy.hashes = this.hashes.clone();
+        copy.count = this.count;
+
+        return copy;
+
+    }
+
+    /**
+     * @return the shots taken, in cell order
+     */
+    @Override
+    public Iterator<Map.Entry<Position, ShotStatus>> iterator() {
+
+        return new Iterator<Map.Entry<Position, ShotStatus>>() {
+
+            private int cell = this.next(0);
+
+            /**
+             * @return the first cell from the given one that has been shot at, skipping whole words at a time
+             */
+            private int next(int from) {
+
+                while (from < size.getCells()) {
+
+                    int word = from >>> 6;
+                    long shot = 0L;
+
+                    for (int i = 0; i < STATUSES.length; i++) {
+
+                        shot |= masks[i * words + word];
+
+                    }
+
+                    shot &= -1L << from;
+
+                    if (shot != 0) return (word << 6) + Long.numberOfTrailingZeros(shot);
+
+                    from = (word + 1) << 6;
+
+                }
+
+                return size.getCells();
 
             }
 
-            sb.append("\n");
+            @Override
+            public boolean hasNext() {
+                return this.cell < size.getCells();
+            }
 
-        }
+            @Override
+            public Map.Entry<Position, ShotStatus> next() {
+
+                if (!this.hasNext()) throw new NoSuchElementException();
+
+                Map.Entry<Position, ShotStatus> entry = new AbstractMap.SimpleImmutableEntry<>(size.position(this.cell), getShot(this.cell));
+
+                this.cell = this.next(this.cell + 1);
+
+                return entry;
+
+            }
+
+        };
+
+    }
+
+    @Override
+    public String toString() {
+
+        return this.size.render(c -> {
+
+            ShotStatus status = this.getShot(c);
+
+            return status == null ? "_" : status.toString().substring(0, 1);
 
-        return sb.toString();
+        });
 
     }
 
@@ -0,0 +1,161 @@
+package classes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the shot the density grid chose in a given state, so that players reaching the same state again, or a
+ * rotation or reflection of it, can skip the grid. States are keyed by the canonical hash of the shots together with a
+ * signature of the board size and the ships still afloat, and shots are stored as they are under the canonical
+ * symmetry.
+ *
+ * The cache is split into segments by hash, each a small least-recently-used map behind its own lock, so players on
+ * different threads rarely wait for one another. Hits and misses are counted without locking.
+ */
+class ShotCache {
+
+    /**
+     * The cache shared by every ComputerPlayer
+     */
+    static final ShotCache SHARED = new ShotCache(1 << 16);
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    /**
+     * A state: the canonical hash of the shots and the signature of the game
+     */
+    private static final class Key {
+
+        private final long hash, signature;
+
+        private Key(long hash, long signature) {
+
+            this.hash = hash;
+            this.signature = signature;
+
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) return true;
+
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            return hash == key.hash && signature == key.signature;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Long.hashCode(hash ^ signature * 31);
+
+        }
+
+    }
+
+    /**
+     * A map that drops its least recently used entry once it is full
+     */
+    private static final class Segment extends LinkedHashMap<Key, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+
+            super(16, 0.75f, true);
+
+            this.capacity = capacity;
+
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            return this.size() > this.capacity;
+        }
+
+    }
+
+    /**
+     * @param capacity The most states remembered
+     */
+    ShotCache(int capacity) {
+
+        for (int i = 0; i < SEGMENTS; i++) {
+
+            this.segments[i] = new Segment(Math.max(1, capacity / SEGMENTS));
+
+        }
+
+    }
+
+    /**
+     * @param hash The canonical hash of the shots
+     * @param signature The signature of the board size and ships afloat
+     *
+     * @return the shot remembered for the state, under the canonical symmetry, or -1 if there is none
+     */
+    int get(long hash, long signature) {
+
+        Segment segment = this.segment(hash);
+        Integer cell;
+
+        synchronized (segment) {
+
+            cell = segment.get(new Key(hash, signature));
+
+        }
+
+        (cell == null ? this.misses : this.hits).increment();
+
+        return cell == null ? -1 : cell;
+
+    }
+
+    /**
+     * @param hash The canonical hash of the shots
+     * @param signature The signature of the board size and ships afloat
+     * @param cell The shot chosen in the state, under the canonical symmetry
+     */
+    void put(long hash, long signature, int cell) {
+
+        Segment segment = this.segment(hash);
+
+        synchronized (segment) {
+
+            segment.put(new Key(hash, signature), cell);
+
+        }
+
+    }
+
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    private Segment segment(long hash) {
+        return this.segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+    }
+
+    @Override
+    public String toString() {
+
+        long hits = this.getHits(), misses = this.getMisses();
+
+        return "hits " + hits + ", misses " + misses + (hits + misses == 0 ? "" : String.format(", hit rate %.1f%%", 100.0 * hits / (hits + misses)));
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package classes;
+
+import enums.ShotStatus;
+
+/**
+ * The result of resolving a single shot against a board
+ */
+public class ShotOutcome {
+
+    private static final int[] NO_CELLS = new int[0];
+
+    static final ShotOutcome MISS = new ShotOutcome(ShotStatus.MISS, -1, NO_CELLS, false);
+
+    private ShotStatus status;
+    private int ship;
+    private int[] sunkCells;
+    private boolean fleetDestroyed;
+
+    ShotOutcome(ShotStatus status, int ship, int[] sunkCells, boolean fleetDestroyed) {
+
+        this.status = status;
+        this.ship = ship;
+        this.sunkCells = sunkCells;
+        this.fleetDestroyed = fleetDestroyed;
+
+    }
+
+    /**
+     * @param ship The number of ships placed on the board before the one that was hit
+     *
+     * @return the outcome of a shot that hit a ship without sinking it
+     */
+    static ShotOutcome hit(int ship) {
+        return new ShotOutcome(ShotStatus.HIT, ship, NO_CELLS, false);
+    }
+
+    /**
+     * @param fleetDestroyed True if every ship on the board is sunk
+     *
+     * @return the outcome of a shot that hit nothing
+     */
+    static ShotOutcome miss(boolean fleetDestroyed) {
+        return fleetDestroyed ? new ShotOutcome(ShotStatus.MISS, -1, NO_CELLS, true) : MISS;
+    }
+
+    /**
+     * @return HIT, MISS or SUNK, as reported to the player who shot
+     */
+    public ShotStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * @return the number of ships placed on the board before the one that was hit, or -1 for a miss
+     */
+    public int getShip() {
+        return this.ship;
+    }
+
+    /**
+     * @return the cells, (y - 1) * width + (x - 1), of the ship that was sunk, or an empty array if no ship was sunk
+     */
+    public int[] getSunkCells() {
+        return this.sunkCells.clone();
+    }
+
+    /**
+     * @return true if every ship on the board is sunk after the shot
+     */
+    public boolean isFleetDestroyed() {
+        return this.fleetDestroyed;
+    }
+
+    @Override
+    public String toString() {
+        return this.status + (this.ship < 0 ? "" : "," + this.ship) + (this.fleetDestroyed ? ",DESTROYED" : "");
+    }
+
+}
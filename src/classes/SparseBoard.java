@@ -0,0 +1,330 @@
+package classes;
+
+import enums.ShipStatus;
+import enums.ShotStatus;
+import exceptions.InvalidPositionException;
+import exceptions.ShipOverlapException;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A board for very large grids. Nothing is stored per cell: each horizontal ship is a segment in the tree of its row,
+ * and each vertical ship a segment in the tree of its column, keyed by the segment's first cell. Finding the ship at a
+ * cell, and checking a new ship for overlap, take a logarithmic number of steps per cell of the ship rather than a
+ * walk over the fleet or the board.
+ */
+public class SparseBoard implements BoardInterface {
+
+    /**
+     * A ship and where it lies
+     */
+    private static class Segment {
+
+        private ShipInterface ship;
+        private int id, x, y;
+        private boolean isVertical;
+
+        private Segment(ShipInterface ship, int id, int x, int y, boolean isVertical) {
+
+            this.ship = ship;
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.isVertical = isVertical;
+
+        }
+
+        /**
+         * @return the first cell of the segment along its row or column
+         */
+        private int start() {
+            return this.isVertical ? this.y : this.x;
+        }
+
+        /**
+         * @return the last cell of the segment along its row or column
+         */
+        private int end() {
+            return this.start() + this.ship.getSize() - 1;
+        }
+
+    }
+
+    private BoardSize size;
+    private Map<Integer, TreeMap<Integer, Segment>> rows = new HashMap<>(), columns = new HashMap<>();
+    private LinkedHashMap<Placement, ShipInterface> ships = new LinkedHashMap<>();
+
+    /**
+     * The number of ship cells on the board that are still INTACT
+     */
+    private int intact = 0;
+
+    public SparseBoard() {
+        this(BoardSize.STANDARD);
+    }
+
+    /**
+     * @param size The dimensions of the board
+     */
+    public SparseBoard(BoardSize size) {
+        this.size = size;
+    }
+
+    /**
+     * @param line The tree of a row or column, or null if there is none
+     * @param start The first cell of a range along that row or column
+     * @param end The last cell of the range
+     *
+     * @return the segment in the tree that overlaps the range, or null if there is none
+     */
+    private static Segment overlap(TreeMap<Integer, Segment> line, int start, int end) {
+
+        if (line == null) return null;
+
+        // Segments in a tree never overlap, so only the last one to start within the range can reach into it
+
+        Map.Entry<Integer, Segment> entry = line.floorEntry(end);
+
+        return entry != null && entry.getValue().end() >= start ? entry.getValue() : null;
+
+    }
+
+    /**
+     * @return the segment covering (x, y), or null if the cell is empty
+     */
+    private Segment find(int x, int y) {
+
+        Segment s = SparseBoard.overlap(this.rows.get(y), x, x);
+
+        return s != null ? s : SparseBoard.overlap(this.columns.get(x), y, y);
+
+    }
+
+    /**
+     * @return the cell, (x, y), of a ship of the given length at the given placement that is already occupied, or
+     * null if there is none
+     */
+    private int[] findOverlap(int length, int x, int y, boolean isVertical) {
+
+        // Ships lying along the same line
+
+        Segment s = isVertical
+                ? SparseBoard.overlap(this.columns.get(x), y, y + length - 1)
+                : SparseBoard.overlap(this.rows.get(y), x, x + length - 1);
+
+        if (s != null) {
+
+            int start = Math.max(s.start(), isVertical ? y : x);
+
+            return isVertical ? new int[]{x, start} : new int[]{start, y};
+
+        }
+
+        // Ships crossing the line
+
+        for (int i = 0; i < length; i++) {
+
+            int cx = isVertical ? x : x + i, cy = isVertical ? y + i : y;
+
+            if (isVertical ? SparseBoard.overlap(this.rows.get(cy), cx, cx) != null : SparseBoard.overlap(this.columns.get(cx), cy, cy) != null) {
+
+                return new int[]{cx, cy};
+
+            }
+
+        }
+
+        return null;
+
+    }
+
+    public void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException {
+
+        this.size.validate(position, ship.getSize(), isVertical);
+
+        int[] overlap = this.findOverlap(ship.getSize(), position.getX(), position.getY(), isVertical);
+
+        if (overlap != null) throw new ShipOverlapException("(" + overlap[0] + ", " + overlap[1] + ")", false);
+
+        Segment s = new Segment(ship, this.ships.size(), position.getX(), position.getY(), isVertical);
+        Map<Integer, TreeMap<Integer, Segment>> lines = isVertical ? this.columns : this.rows;
+
+        lines.computeIfAbsent(isVertical ? s.x : s.y, k -> new TreeMap<>()).put(s.start(), s);
+
+        for (int i = 0; i < ship.getSize(); i++) {
+
+            if (ship.getStatus(i) == ShipStatus.INTACT) this.intact++;
+
+        }
+
+        this.ships.put(new Placement(position, isVertical), ship);
+
+    }
+
+    public boolean canPlace(ShipInterface ship, Position position, boolean isVertical) {
+
+        return this.size.fits(position, ship.getSize(), isVertical)
+                && this.findOverlap(ship.getSize(), position.getX(), position.getY(), isVertical) == null;
+
+    }
+
+    public void shoot(Position position) throws InvalidPositionException {
+
+        this.size.validate(position);
+
+        this.shoot(position.getX(), position.getY());
+
+    }
+
+    public void shoot(int cell) throws InvalidPositionException {
+
+        this.size.validate(cell);
+
+        this.shoot(cell % this.size.getWidth() + 1, cell / this.size.getWidth() + 1);
+
+    }
+
+    /**
+     * @return the segment that was shot, or null if the shot missed
+     */
+    private Segment shoot(int x, int y) throws InvalidPositionException {
+
+        Segment s = this.find(x, y);
+
+        if (s == null) return null;
+
+        int offset = s.isVertical ? y - s.y : x - s.x;
+
+        if (s.ship.getStatus(offset) == ShipStatus.INTACT) this.intact--;
+
+        s.ship.shoot(offset);
+
+        return s;
+
+    }
+
+    public ShotOutcome fire(Position position) throws InvalidPositionException {
+
+        this.size.validate(position);
+
+        return this.fire(position.getX(), position.getY());
+
+    }
+
+    public ShotOutcome fire(int cell) throws InvalidPositionException {
+
+        this.size.validate(cell);
+
+        return this.fire(cell % this.size.getWidth() + 1, cell / this.size.getWidth() + 1);
+
+    }
+
+    private ShotOutcome fire(int x, int y) throws InvalidPositionException {
+
+        Segment s = this.shoot(x, y);
+
+        if (s == null) return ShotOutcome.miss(this.intact == 0);
+
+        if (!s.ship.isSunk()) return ShotOutcome.hit(s.id);
+
+        int[] cells = new int[s.ship.getSize()];
+
+        for (int i = 0; i < cells.length; i++) {
+
+            cells[i] = this.size.index(s.isVertical ? s.x : s.x + i, s.isVertical ? s.y + i : s.y);
+
+        }
+
+        return new ShotOutcome(ShotStatus.SUNK, s.id, cells, this.intact == 0);
+
+    }
+
+    public ShipStatus getStatus(Position position) throws InvalidPositionException {
+
+        this.size.validate(position);
+
+        return this.getStatus(position.getX(), position.getY());
+
+    }
+
+    public ShipStatus getStatus(int cell) throws InvalidPositionException {
+
+        this.size.validate(cell);
+
+        return this.getStatus(cell % this.size.getWidth() + 1, cell / this.size.getWidth() + 1);
+
+    }
+
+    private ShipStatus getStatus(int x, int y) throws InvalidPositionException {
+
+        Segment s = this.find(x, y);
+
+        return s == null ? ShipStatus.NONE : s.ship.getStatus(s.isVertical ? y - s.y : x - s.x);
+
+    }
+
+    public boolean allSunk() {
+        return this.intact == 0;
+    }
+
+    public BoardSize getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return copies of the ships, which can be read or changed without affecting this board or any clone of it
+     */
+    public Map<Placement, ShipInterface> getShips() {
+        return Ship.copyOf(this.ships);
+    }
+
+    public BoardInterface clone() {
+
+        SparseBoard board = new SparseBoard(this.size);
+
+        for (Map.Entry<Placement, ShipInterface> entry: this.ships.entrySet()) {
+
+            Placement p = entry.getKey();
+            Ship copy = Ship.copyOf(entry.getValue());
+            Segment s = new Segment(copy, board.ships.size(), p.getPosition().getX(), p.getPosition().getY(), p.isVertical());
+
+            (p.isVertical() ? board.columns : board.rows).computeIfAbsent(p.isVertical() ? s.x : s.y, k -> new TreeMap<>()).put(s.start(), s);
+            board.ships.put(p, copy);
+
+        }
+
+        board.intact = this.intact;
+
+        return board;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return this.size.render(c -> {
+
+            try {
+
+                ShipStatus status = this.getStatus(c % this.size.getWidth() + 1, c / this.size.getWidth() + 1);
+
+                return status == ShipStatus.NONE ? "_" : status.toString().substring(0, 1);
+
+            } catch (InvalidPositionException e) {
+
+                System.out.println("Error generating board: " + e.toString());
+
+                return "_";
+
+            }
+
+        });
+
+    }
+
+}
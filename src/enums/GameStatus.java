@@ -0,0 +1,28 @@
+package enums;
+
+/**
+ * Where a game stands after the engine was last asked to move it on
+ */
+public enum GameStatus {
+
+    /**
+     * Neither player has won yet
+     */
+    IN_PROGRESS,
+
+    /**
+     * A player paused the game; asking the engine to move on again resumes it
+     */
+    PAUSED,
+
+    /**
+     * A player sank every ship of their opponent
+     */
+    WON,
+
+    /**
+     * A player placed a ship or shot illegally, and their opponent won
+     */
+    FORFEITED
+
+}
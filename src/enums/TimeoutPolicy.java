@@ -0,0 +1,18 @@
+package enums;
+
+/**
+ * What happens when a player runs out of time on its chess clock
+ */
+public enum TimeoutPolicy {
+
+    /**
+     * The game moves for the player: a random open placement, or a random cell the player has not yet shot at
+     */
+    RANDOM_SHOT,
+
+    /**
+     * The player loses the game
+     */
+    FORFEIT
+
+}
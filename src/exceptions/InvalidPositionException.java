@@ -16,4 +16,13 @@ public class InvalidPositionException extends Exception
     public InvalidPositionException(String message, Throwable cause){
         super(message, cause);
     }
+
+    /**
+     * @param message the detail message
+     * @param writableStackTrace false to skip filling in the stack trace, for when the exception is used as a signal
+     * rather than to report an error
+     */
+    public InvalidPositionException(String message, boolean writableStackTrace){
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,59 @@
+package interfaces;
+
+import classes.Placement;
+import classes.Position;
+import enums.ShotStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player that answers the game's requests asynchronously, so that a game waiting on a slow player does not hold a
+ * thread. It is asked for placements and shots in the same order as a PlayerInterface, but returns futures rather than
+ * blocking until it has decided.
+ *
+ * An existing PlayerInterface can be used through classes.AsyncPlayerAdapter.
+ */
+
+public interface AsyncPlayerInterface
+{
+    /**
+     * @param ship The ship to be placed
+     *
+     * @param board A copy of the current board state to which the ship will be added, taken when the request is made.
+     * Since the answer may come after the request returns, the player is given a copy it may keep rather than a view;
+     * ships placed and shots fired on it do not change the real board.
+     *
+     * @return A future completed with the placement (position and orientation) of the ship specified by the player, or
+     * completed exceptionally with an exceptions.PauseException if the player wants to pause the game
+     */
+    CompletableFuture<Placement> choosePlacement(ShipInterface ship, BoardInterface board);
+
+    /**
+     * @return A future completed with the shot chosen by the player, or completed exceptionally with an
+     * exceptions.PauseException if the player wants to pause the game
+     */
+    CompletableFuture<Position> chooseShot();
+
+    /**
+     * After the shot chosen by the player, or one taken on its behalf, has been fired, the game calls this method with
+     * the result. It must not block.
+     *
+     * @param position The position of the shot
+     *
+     * @param status The result of the shot
+     */
+    void shotResult(Position position, ShotStatus status);
+
+    /**
+     * After the game has fired the opponent's shot this method is called. It must not block.
+     *
+     * @param position The position that the opponent chose for their shot.
+     */
+    void opponentShot(Position position);
+
+    /**
+     * @return A string representation of the player i.e. its display name.
+     */
+    String toString();
+
+}
@@ -1,10 +1,15 @@
 package interfaces;
 
+import classes.BoardSize;
+import classes.Placement;
 import classes.Position;
+import classes.ShotOutcome;
 import enums.ShipStatus;
 import exceptions.InvalidPositionException;
 import exceptions.ShipOverlapException;
 
+import java.util.Map;
+
 /**
  * You should define a constructor with no parameters
  */
@@ -29,6 +34,19 @@ public interface BoardInterface extends Cloneable
      */
     void placeShip(ShipInterface ship, Position position, boolean isVertical) throws InvalidPositionException, ShipOverlapException;
 
+    /**
+     * Find if a ship could be added to the board, without adding it or throwing an exception
+     *
+     * @param ship The ship that would be added
+     *
+     * @param position The top/left of the ship position
+     *
+     * @param isVertical True if the ship would be placed vertically, otherwise horizontally
+     *
+     * @return True if and only if placeShip would succeed with the same parameters
+     */
+    boolean canPlace(ShipInterface ship, Position position, boolean isVertical);
+
     /**
      * Update the board state by shooting at the given position
      *
@@ -38,6 +56,38 @@ public interface BoardInterface extends Cloneable
      */
     void shoot(Position position) throws InvalidPositionException;
 
+    /**
+     * Update the board state by shooting at the given cell
+     *
+     * @param cell The index of the cell to shoot at, (y - 1) * width + (x - 1)
+     *
+     * @throws InvalidPositionException if the cell is not on the board
+     */
+    void shoot(int cell) throws InvalidPositionException;
+
+    /**
+     * Shoot at the given position and report everything the shot revealed, in a single pass
+     *
+     * @param position The position to shoot at
+     *
+     * @return the status to report to the player, which ship was hit, the cells of a sunk ship, and whether every ship
+     * is now sunk
+     *
+     * @throws InvalidPositionException if the shot position is not on the board
+     */
+    ShotOutcome fire(Position position) throws InvalidPositionException;
+
+    /**
+     * Shoot at the given cell and report everything the shot revealed, in a single pass
+     *
+     * @param cell The index of the cell to shoot at, (y - 1) * width + (x - 1)
+     *
+     * @return the outcome of the shot
+     *
+     * @throws InvalidPositionException if the cell is not on the board
+     */
+    ShotOutcome fire(int cell) throws InvalidPositionException;
+
     /**
      * Find the status at the given position
      *
@@ -49,6 +99,17 @@ public interface BoardInterface extends Cloneable
      */
     ShipStatus getStatus(Position position) throws InvalidPositionException;
 
+    /**
+     * Find the status at the given cell
+     *
+     * @param cell the index of the cell to find out about, (y - 1) * width + (x - 1)
+     *
+     * @return The status at the given cell
+     *
+     * @throws InvalidPositionException if the cell is not on the board
+     */
+    ShipStatus getStatus(int cell) throws InvalidPositionException;
+
     /**
      * Find if all the ships on the board have been sunk
      *
@@ -56,6 +117,17 @@ public interface BoardInterface extends Cloneable
      */
     boolean allSunk();
 
+    /**
+     * @return the dimensions of the board
+     */
+    BoardSize getSize();
+
+    /**
+     * @return the ships on the board, keyed by the placement they were added with. The map is read-only and holds
+     * copies of the ships, so nothing done with it changes the board
+     */
+    Map<Placement, ShipInterface> getShips();
+
     /**
      *
      * @return A string representation of the board, suitable for printing to the screen
@@ -21,9 +21,11 @@ import exceptions.PauseException;
 public interface PlayerInterface
 {
     /**
-     * @param ship The ship to be placed
+     * @param ship The ship to be placed. The game places a ship of its own, so changing this one has no effect.
      * 
-     * @param board (A clone of) the current board state to which the ship will be added
+     * @param board A view of the current board state to which the ship will be added. Ships may be placed and shots
+     * fired on it without changing the real board. It is valid only until this method returns, after which any use of
+     * it throws IllegalStateException; clone it to keep a copy.
      * 
      * @return The placement (position and orientation) of the ship specified by the player
      * 
@@ -0,0 +1,101 @@
+package classes;
+
+import enums.TimeoutPolicy;
+import exceptions.PauseException;
+import interfaces.AsyncPlayerInterface;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks what each timeout policy does to a player too slow for its clock, and that a player can pause the game
+ */
+class AsyncGameTest {
+
+    public static void main(String[] args) throws Exception {
+
+        // Under FORFEIT the slow player loses as soon as it runs out of time
+
+        AsyncPlayerInterface slow = AsyncPlayerAdapter.of(new Slow()), fast = AsyncPlayerAdapter.of(new ComputerPlayer("Fast"));
+        AsyncGame game = AsyncGameTest.game(slow, fast, TimeoutPolicy.FORFEIT);
+
+        AsyncGameTest.check(game.play().get(30, TimeUnit.SECONDS) == fast, "the slow player did not forfeit");
+        AsyncGameTest.check(game.getTurns() < 20, "the slow player forfeited late, after " + game.getTurns() + " shots");
+
+        // Under RANDOM_SHOT the game moves for the slow player and is played to the end
+
+        slow = AsyncPlayerAdapter.of(new Slow());
+        fast = AsyncPlayerAdapter.of(new ComputerPlayer("Fast"));
+        game = AsyncGameTest.game(slow, fast, TimeoutPolicy.RANDOM_SHOT);
+
+        AsyncGameTest.check(game.play().get(30, TimeUnit.SECONDS) != null, "the game with random shots did not finish");
+        AsyncGameTest.check(game.getTurns() >= 2 * 17 - 1, "the game with random shots ended after " + game.getTurns() + " shots");
+
+        // A player that pauses ends the game without a winner
+
+        ComputerPlayer pausing = new ComputerPlayer("Pausing") {
+
+            @Override
+            public Placement choosePlacement(ShipInterface ship, BoardInterface board) throws PauseException {
+                throw new PauseException("pause");
+            }
+
+        };
+
+        game = AsyncGameTest.game(AsyncPlayerAdapter.of(pausing), fast, TimeoutPolicy.FORFEIT);
+
+        AsyncGameTest.check(game.play().get(30, TimeUnit.SECONDS) == null, "pausing did not end the game without a winner");
+
+        System.out.println("AsyncGameTest passed");
+
+    }
+
+    /**
+     * @return a game in which each player has 200 ms
+     */
+    private static AsyncGame game(AsyncPlayerInterface player1, AsyncPlayerInterface player2, TimeoutPolicy policy) {
+
+        return new AsyncGame(player1, player2, BoardSize.STANDARD, Game.FLEET, BitBoard::new,
+                new ChessClock(200_000_000L, 0), policy, new Random(1));
+
+    }
+
+    /**
+     * Takes 50 ms over each shot, so runs out of time after a few
+     */
+    private static class Slow extends ComputerPlayer {
+
+        Slow() {
+
+            super("Slow");
+
+        }
+
+        @Override
+        public Position chooseShot() {
+
+            try {
+
+                Thread.sleep(50);
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+            }
+
+            return super.chooseShot();
+
+        }
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package classes;
+
+import enums.ShipStatus;
+import interfaces.BoardInterface;
+import interfaces.ShipInterface;
+
+import java.util.function.Supplier;
+
+/**
+ * Checks that a clone of each kind of board is independent of its source, however either is changed
+ */
+class BoardTest {
+
+    public static void main(String[] args) throws Exception {
+
+        BoardTest.checkClones("Board", Board::new);
+        BoardTest.checkClones("BitBoard", BitBoard::new);
+        BoardTest.checkClones("SparseBoard", () -> new SparseBoard(BoardSize.STANDARD));
+        BoardTest.checkManyShips();
+
+        System.out.println("BoardTest passed");
+
+    }
+
+    /**
+     * A board with more ships than fit in a short still numbers each ship by the order it was placed in
+     */
+    private static void checkManyShips() throws Exception {
+
+        Board board = new Board(new BoardSize(200, 200));
+        int ships = Short.MAX_VALUE + 2;
+
+        for (int i = 0; i < ships; i++) {
+
+            board.placeShip(new Ship(1), board.getSize().position(i), false);
+
+        }
+
+        int last = ships - 1;
+
+        BoardTest.check(board.getIndex().getId(last) == last, "the index numbered the last ship " + board.getIndex().getId(last));
+        int shot = board.fire(last).getShip();
+
+        BoardTest.check(shot == last, "the last ship was reported as " + shot);
+
+    }
+
+    private static void checkClones(String name, Supplier<BoardInterface> boards) throws Exception {
+
+        BoardInterface source = BoardTest.fleet(boards.get());
+        BoardInterface clone = source.clone();
+
+        // Changing the ships handed out by a clone changes neither board
+
+        for (ShipInterface ship: clone.getShips().values()) {
+
+            ship.shoot(0);
+
+        }
+
+        for (Position p: new Position[]{new Position(1, 1), new Position(1, 3)}) {
+
+            BoardTest.check(source.getStatus(p) == ShipStatus.INTACT, name + ": shooting a ship of a clone's map changed the source");
+            BoardTest.check(clone.getStatus(p) == ShipStatus.INTACT, name + ": shooting a ship of a clone's map changed the clone");
+
+        }
+
+        try {
+
+            clone.getShips().clear();
+
+            BoardTest.check(false, name + ": the map of ships can be cleared");
+
+        } catch (UnsupportedOperationException e) {
+
+            // expected
+
+        }
+
+        BoardTest.check(source.getShips().size() == 2 && !source.allSunk(), name + ": the source lost its ships");
+
+        // Shooting either board leaves the other alone
+
+        clone.shoot(new Position(1, 1));
+        source.shoot(new Position(1, 3));
+
+        BoardTest.check(source.getStatus(new Position(1, 1)) == ShipStatus.INTACT, name + ": shooting a clone changed the source");
+        BoardTest.check(clone.getStatus(new Position(1, 1)) == ShipStatus.HIT, name + ": the clone was not shot");
+        BoardTest.check(clone.getStatus(new Position(1, 3)) == ShipStatus.INTACT, name + ": shooting the source changed the clone");
+
+        // Placing on a clone leaves the source alone
+
+        clone.placeShip(new Ship(2), new Position(5, 5), false);
+
+        BoardTest.check(source.getShips().size() == 2, name + ": placing on a clone changed the source");
+        BoardTest.check(clone.getShips().size() == 3, name + ": the ship was not placed on the clone");
+
+    }
+
+    /**
+     * @return the board with a ship of 3 across from (1, 1) and a ship of 2 across from (1, 3)
+     */
+    private static BoardInterface fleet(BoardInterface board) throws Exception {
+
+        board.placeShip(new Ship(2), new Position(1, 3), false);
+        board.placeShip(new Ship(3), new Position(1, 1), false);
+
+        return board;
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
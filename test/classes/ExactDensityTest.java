@@ -0,0 +1,122 @@
+package classes;
+
+import enums.ShotStatus;
+
+/**
+ * Checks the exact solver against a brute-force count of every layout on small boards
+ */
+class ExactDensityTest {
+
+    public static void main(String[] args) {
+
+        ExactDensity solver = new ExactDensity(1e12, 10_000_000_000L);
+        BoardSize size = new BoardSize(5, 4);
+        int[] fleet = new int[]{2, 3, 3};
+
+        ExactDensityTest.check(solver, new ShotBoard(size), new long[1], fleet, "no shots");
+
+        ShotBoard shots = new ShotBoard(size);
+
+        shots.addShot(size.index(2, 2), ShotStatus.MISS);
+        shots.addShot(size.index(4, 3), ShotStatus.MISS);
+        shots.addShot(size.index(3, 3), ShotStatus.HIT);
+
+        ExactDensityTest.check(solver, shots, new long[1], fleet, "misses and a hit");
+
+        // A sunk ship of 2 at (1, 1)-(2, 1) is taken off the board and out of the fleet
+
+        shots.addShot(size.index(1, 1), ShotStatus.SUNK);
+        shots.addShot(size.index(2, 1), ShotStatus.SUNK);
+
+        long[] sunk = new long[]{1L << size.index(1, 1) | 1L << size.index(2, 1)};
+
+        ExactDensityTest.check(solver, shots, sunk, new int[]{3, 3}, "a sunk ship");
+
+        System.out.println("ExactDensityTest passed");
+
+    }
+
+    private static void check(ExactDensity solver, ShotBoard shots, long[] sunk, int[] fleet, String name) {
+
+        BoardSize size = shots.getSize();
+        long blocked = shots.getMask(ShotStatus.MISS, 0) | sunk[0],
+                hits = (shots.getMask(ShotStatus.HIT, 0) | shots.getMask(ShotStatus.SUNK, 0)) & ~blocked;
+        long[] cells = new long[size.getCells()];
+        long layouts = ExactDensityTest.count(size, fleet, 0, blocked, hits, 0L, cells);
+        double[] solved = solver.solve(shots, sunk, fleet);
+
+        ExactDensityTest.check(layouts > 0 && solved != null, name + ": no layouts were found");
+
+        for (int c = 0; c < cells.length; c++) {
+
+            double expected = (double) cells[c] / layouts;
+
+            ExactDensityTest.check(Math.abs(solved[c] - expected) < 1e-9, name + ": cell " + c + " is " + solved[c] + " rather than " + expected);
+
+        }
+
+    }
+
+    /**
+     * Counts, by trying every placement of every ship in turn, the layouts that avoid the blocked cells and cover the
+     * hits, and adds the layouts with a ship on each cell to cells
+     *
+     * @param taken The cells taken by the ships before ship
+     */
+    private static long count(BoardSize size, int[] fleet, int ship, long blocked, long hits, long taken, long[] cells) {
+
+        if (ship == fleet.length) {
+
+            if ((hits & ~taken) != 0) return 0;
+
+            for (int c = 0; c < cells.length; c++) {
+
+                if ((taken & 1L << c) != 0) cells[c]++;
+
+            }
+
+            return 1;
+
+        }
+
+        long layouts = 0;
+
+        for (int y = 1; y <= size.getHeight(); y++) {
+
+            for (int x = 1; x <= size.getWidth(); x++) {
+
+                for (int k = 0; k < 2; k++) {
+
+                    boolean isVertical = k == 0;
+
+                    if (!size.contains(isVertical ? x : x + fleet[ship] - 1, isVertical ? y + fleet[ship] - 1 : y)) continue;
+
+                    long mask = 0;
+
+                    for (int offset = 0; offset < fleet[ship]; offset++) {
+
+                        mask |= 1L << size.index(isVertical ? x : x + offset, isVertical ? y + offset : y);
+
+                    }
+
+                    if ((mask & (blocked | taken)) != 0) continue;
+
+                    layouts += ExactDensityTest.count(size, fleet, ship + 1, blocked, hits, taken | mask, cells);
+
+                }
+
+            }
+
+        }
+
+        return layouts;
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package classes;
+
+import enums.GameStatus;
+import enums.ShipStatus;
+import enums.ShotStatus;
+import interfaces.BoardInterface;
+import interfaces.PlayerInterface;
+import interfaces.ShipInterface;
+
+/**
+ * Checks that the board a player is handed while placing ships cannot be used to change or watch the real board
+ */
+class GameEngineTest {
+
+    public static void main(String[] args) throws Exception {
+
+        GameEngineTest.checkKeptView();
+        GameEngineTest.checkShotView();
+        GameEngineTest.checkPlaceAfterShot();
+
+        System.out.println("GameEngineTest passed");
+
+    }
+
+    /**
+     * A player that keeps the view it was given finds it invalid once the call returns
+     */
+    private static void checkKeptView() throws Exception {
+
+        Scanner peeker = new Scanner("Peeker") {
+
+            BoardInterface kept;
+
+            @Override
+            public Placement choosePlacement(ShipInterface ship, BoardInterface board) {
+
+                this.kept = board;
+
+                return super.choosePlacement(ship, board);
+
+            }
+
+            @Override
+            public Position chooseShot() {
+
+                try {
+
+                    this.kept.getStatus(new Position(1, 1));
+
+                    GameEngineTest.check(false, "a kept view can still be read");
+
+                } catch (IllegalStateException e) {
+
+                    // expected
+
+                } catch (Exception e) {
+
+                    GameEngineTest.check(false, "a kept view threw " + e);
+
+                }
+
+                return super.chooseShot();
+
+            }
+
+        };
+
+        GameResult result = new GameEngine(peeker, new Scanner("Scanner")).runToCompletion();
+
+        GameEngineTest.check(result.getStatus() == GameStatus.WON, "the game with a kept view did not finish");
+
+    }
+
+    /**
+     * A player that shoots the view and the ship it was given changes neither the real board nor the ship placed
+     */
+    private static void checkShotView() throws Exception {
+
+        Scanner shooter = new Scanner("Shooter") {
+
+            @Override
+            public Placement choosePlacement(ShipInterface ship, BoardInterface board) {
+
+                try {
+
+                    for (int c = 0; c < board.getSize().getCells(); c++) {
+
+                        board.fire(c);
+
+                    }
+
+                    ship.shoot(0);
+
+                } catch (Exception e) {
+
+                    GameEngineTest.check(false, "shooting a view threw " + e);
+
+                }
+
+                return super.choosePlacement(ship, board);
+
+            }
+
+        };
+
+        BitBoard board1 = new BitBoard(BoardSize.STANDARD), board2 = new BitBoard(BoardSize.STANDARD);
+        GameEngine engine = new GameEngine(shooter, new Scanner("Scanner"), board1, board2, Game.FLEET, 0, null);
+
+        GameEngineTest.check(engine.setup() == GameStatus.IN_PROGRESS, "the shooter could not place its ships");
+        GameEngineTest.check(board1.getShips().size() == Game.FLEET.length, "the shooter's ships were not all placed");
+
+        for (Placement p: board1.getShips().keySet()) {
+
+            GameEngineTest.check(board1.getStatus(p.getPosition()) == ShipStatus.INTACT, "shooting the view or the ship hit the real board");
+
+        }
+
+        GameEngineTest.check(engine.runToCompletion().getStatus() == GameStatus.WON, "the game with a shot view did not finish");
+
+    }
+
+    /**
+     * A ship placed on a view after it has been shot at can itself be shot, and the board viewed is still unchanged
+     */
+    private static void checkPlaceAfterShot() throws Exception {
+
+        BitBoard board = new BitBoard(BoardSize.STANDARD);
+        BoardView view = new BoardView(board);
+
+        view.fire(new Position(10, 10));
+        view.placeShip(new Ship(2), new Position(1, 1), false);
+
+        GameEngineTest.check(view.fire(new Position(1, 1)).getStatus() == ShotStatus.HIT, "a ship placed after a shot could not be hit");
+        GameEngineTest.check(view.getStatus(new Position(2, 1)) == ShipStatus.INTACT, "a ship placed after a shot is not on the view");
+        GameEngineTest.check(board.getShips().isEmpty() && board.getStatus(new Position(1, 1)) == ShipStatus.NONE, "the view changed the board");
+
+    }
+
+    /**
+     * Places each ship across the first free row it fits in, and shoots every cell in turn
+     */
+    private static class Scanner implements PlayerInterface {
+
+        private final String name;
+        private int next = 0;
+
+        Scanner(String name) {
+
+            this.name = name;
+
+        }
+
+        public Placement choosePlacement(ShipInterface ship, BoardInterface board) {
+
+            BoardSize size = board.getSize();
+
+            for (int c = 0; c < size.getCells(); c++) {
+
+                Position p = size.position(c);
+
+                if (board.canPlace(ship, p, false)) return new Placement(p, false);
+
+            }
+
+            return null;
+
+        }
+
+        public Position chooseShot() {
+            return BoardSize.STANDARD.position(this.next++);
+        }
+
+        public void shotResult(Position position, ShotStatus status) {}
+
+        public void opponentShot(Position position) {}
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
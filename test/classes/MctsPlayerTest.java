@@ -0,0 +1,42 @@
+package classes;
+
+import enums.ShotStatus;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks that the searching player hands over to its tracker when the fleet is too big for a GameState
+ */
+class MctsPlayerTest {
+
+    public static void main(String[] args) throws Exception {
+
+        int[] fleet = new int[GameState.MAX_SHIPS + 1];
+
+        Arrays.fill(fleet, 1);
+
+        MctsPlayer player = new MctsPlayer("Searcher", BoardSize.STANDARD, fleet, 100, 1000000000L, ForkJoinPool.commonPool(), new SplittableRandom(1));
+
+        for (int i = 0; i < 3; i++) {
+
+            Position shot = player.chooseShot();
+
+            MctsPlayerTest.check(shot != null, "no shot was chosen for a fleet too big for a GameState");
+
+            player.shotResult(shot, ShotStatus.MISS);
+
+        }
+
+        System.out.println("MctsPlayerTest passed");
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
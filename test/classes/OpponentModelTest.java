@@ -0,0 +1,116 @@
+package classes;
+
+import interfaces.BoardInterface;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Checks that the opponent model stays in memory unless told where to keep it, skips large boards, counts each
+ * placement, and reads back what it saves
+ */
+class OpponentModelTest {
+
+    public static void main(String[] args) throws Exception {
+
+        Path dir = Files.createTempDirectory("opponents");
+
+        try {
+
+            // With no property set the shared model has no file, so saving it writes nothing to the working directory
+
+            System.clearProperty(OpponentModel.PROPERTY);
+
+            long before = OpponentModelTest.count(Paths.get(""));
+
+            OpponentModel.shared().record("Alice", OpponentModelTest.layout(BoardSize.STANDARD));
+            OpponentModel.shared().save();
+
+            OpponentModelTest.check(OpponentModelTest.count(Paths.get("")) == before, "the shared model wrote a file without being asked to");
+
+            OpponentModelTest.check(OpponentModel.shared().getPrior("Alice", BoardSize.STANDARD) != null, "the shared model did not count the game");
+
+            // Boards too large to count are skipped
+
+            BoardSize large = new BoardSize(300, 300);
+            OpponentModel model = new OpponentModel(dir.resolve("opponents.dat"));
+
+            model.record("Bob", OpponentModelTest.layout(large));
+
+            OpponentModelTest.check(model.getPrior("Bob", large) == null, "a game on a board too large to count was counted");
+
+            // Saving and loading keeps the counts
+
+            model.record("Bob", OpponentModelTest.layout(BoardSize.STANDARD));
+            model.save();
+
+            OpponentModel loaded = new OpponentModel(dir.resolve("opponents.dat"));
+
+            loaded.load();
+
+            OpponentModelTest.check(Arrays.equals(model.getPrior("Bob", BoardSize.STANDARD), loaded.getPrior("Bob", BoardSize.STANDARD)), "the loaded model differs from the saved one");
+
+            // Each ship's placement is counted, and kept across saving and loading
+
+            int across = PlacementTable.of(BoardSize.STANDARD, 3).indexOf(0, false), down = PlacementTable.of(BoardSize.STANDARD, 2).indexOf(44, true);
+            OpponentModel.Profile profile = loaded.getProfile("Bob", BoardSize.STANDARD);
+
+            OpponentModelTest.check(profile.getPlacementCount(3, across) == 1 && profile.getPlacementCount(2, down) == 1, "the placements were not counted");
+            OpponentModelTest.check(profile.getPlacementCount(3, across + 1) == 0, "a placement not used was counted");
+
+        } finally {
+
+            try (var files = Files.list(dir)) {
+
+                for (Path file: (Iterable<Path>) files::iterator) {
+
+                    Files.delete(file);
+
+                }
+
+            }
+
+            Files.delete(dir);
+
+        }
+
+        System.out.println("OpponentModelTest passed");
+
+    }
+
+    /**
+     * @return the number of files in the directory
+     */
+    private static long count(Path dir) throws Exception {
+
+        try (var files = Files.list(dir)) {
+
+            return files.count();
+
+        }
+
+    }
+
+    /**
+     * @return a board with a ship of 3 across from (1, 1) and a ship of 2 down from (5, 5)
+     */
+    private static BoardInterface layout(BoardSize size) throws Exception {
+
+        BoardInterface board = new SparseBoard(size);
+
+        board.placeShip(new Ship(3), new Position(1, 1), false);
+        board.placeShip(new Ship(2), new Position(5, 5), true);
+
+        return board;
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package classes;
+
+import enums.ShipStatus;
+import interfaces.ShipInterface;
+
+import java.util.Random;
+
+/**
+ * Checks that placing a ship on a board too large to list its placements finishes, whether or not the ship fits
+ */
+class PlacementSamplerTest {
+
+    public static void main(String[] args) {
+
+        PlacementSampler sampler = new PlacementSampler(new Random(1));
+        BoardSize size = new BoardSize(BoardSize.MAX, PlacementSampler.MAX_ENUMERATED / BoardSize.MAX + 1);
+        SparseBoard board = new SparseBoard(size);
+
+        // A ship as wide as the board fits only at the start of a row, which random tries are all but certain to miss
+
+        Placement placement = sampler.choose(PlacementSamplerTest.ship(size.getWidth()), board);
+
+        PlacementSamplerTest.check(placement != null, "the only placement was not found");
+        PlacementSamplerTest.check(placement.getPosition().getX() == 1 && !placement.isVertical(), "the placement found does not fit");
+
+        PlacementSamplerTest.check(sampler.choose(PlacementSamplerTest.ship(size.getWidth() + 1), board) == null, "a ship longer than the board was placed");
+
+        System.out.println("PlacementSamplerTest passed");
+
+    }
+
+    /**
+     * @return an intact ship of the length, which may be longer than a Ship can be
+     */
+    private static ShipInterface ship(int length) {
+
+        return new ShipInterface() {
+
+            public int getSize() {
+                return length;
+            }
+
+            public boolean isSunk() {
+                return false;
+            }
+
+            public void shoot(int offset) {}
+
+            public ShipStatus getStatus(int offset) {
+                return ShipStatus.INTACT;
+            }
+
+        };
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package classes;
+
+/**
+ * Checks the placements of a table against a plain scan of the board, both on a board small enough for the table to
+ * list them and on one so large that it works them out
+ */
+class PlacementTableTest {
+
+    public static void main(String[] args) {
+
+        for (int length = 0; length <= 6; length++) {
+
+            PlacementTableTest.check(new BoardSize(7, 5), length, 1);
+            PlacementTableTest.check(new BoardSize(300, 250), length, 2999);
+
+        }
+
+        System.out.println("PlacementTableTest passed");
+
+    }
+
+    /**
+     * @param stride Only every stride-th cell has the placements through it checked
+     */
+    private static void check(BoardSize size, int length, int stride) {
+
+        PlacementTable table = PlacementTable.of(size, length);
+        String name = size + " length " + length;
+        int p = 0;
+
+        // The placements are those that fit, numbered row by row, vertical before horizontal
+
+        for (int y = 1; y <= size.getHeight(); y++) {
+
+            for (int x = 1; x <= size.getWidth(); x++) {
+
+                for (int k = 0; k < 2; k++) {
+
+                    boolean isVertical = k == 0;
+                    int origin = size.index(x, y);
+
+                    if (length < 1 || !size.contains(isVertical ? x : x + length - 1, isVertical ? y + length - 1 : y)) {
+
+                        PlacementTableTest.check(table.indexOf(origin, isVertical) == -1, name + ": a placement that does not fit has an index");
+
+                        continue;
+
+                    }
+
+                    PlacementTableTest.check(table.getOrigin(p) == origin && table.isVertical(p) == isVertical, name + ": placement " + p + " is out of order");
+                    PlacementTableTest.check(table.indexOf(origin, isVertical) == p, name + ": indexOf does not find placement " + p);
+
+                    for (int offset = 0; offset < length; offset++) {
+
+                        int cell = origin + offset * (isVertical ? size.getWidth() : 1);
+
+                        PlacementTableTest.check(table.getCell(p, offset) == cell, name + ": placement " + p + " has the wrong cells");
+
+                    }
+
+                    p++;
+
+                }
+
+            }
+
+        }
+
+        PlacementTableTest.check(table.getCount() == p, name + ": the count is " + table.getCount() + " rather than " + p);
+
+        for (int cell = 0; cell < size.getCells(); cell += stride) {
+
+            int i = 0;
+
+            for (int q = 0; q < table.getCount(); q++) {
+
+                boolean covers = false;
+
+                for (int offset = 0; offset < length; offset++) {
+
+                    covers |= table.getCell(q, offset) == cell;
+
+                }
+
+                if (!covers) continue;
+
+                PlacementTableTest.check(i < table.getThroughCount(cell) && table.getThrough(cell, i) == q, name + ": the placements through cell " + cell + " are wrong");
+
+                i++;
+
+            }
+
+            PlacementTableTest.check(i == table.getThroughCount(cell), name + ": cell " + cell + " has too many placements through it");
+
+        }
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package classes;
+
+import enums.ShotStatus;
+
+import java.util.Random;
+
+/**
+ * Checks that a player hunting with a warm shot cache, filled by a player in a rotation or reflection of the same
+ * state, chooses the same shot as one hunting with a cold cache
+ */
+class ShotCacheTest {
+
+    public static void main(String[] args) {
+
+        Random random = new Random(7);
+        BoardSize[] sizes = {BoardSize.STANDARD, new BoardSize(9, 6)};
+
+        for (BoardSize size: sizes) {
+
+            for (int trial = 0; trial < 200; trial++) {
+
+                int[] misses = new int[random.nextInt(40)];
+
+                for (int i = 0; i < misses.length; i++) {
+
+                    misses[i] = random.nextInt(size.getCells());
+
+                }
+
+                ShotCache warm = new ShotCache(1 << 10);
+
+                ShotCacheTest.hunt(size, misses, 0, warm);
+
+                for (int s = 0; s < size.getSymmetries(); s++) {
+
+                    Position cold = ShotCacheTest.hunt(size, misses, s, new ShotCache(1 << 10));
+                    Position cached = ShotCacheTest.hunt(size, misses, s, warm);
+
+                    ShotCacheTest.check(cold.equals(cached), size + " after " + misses.length + " misses under symmetry " + s + ": cold " + cold + ", warm " + cached);
+
+                }
+
+            }
+
+        }
+
+        System.out.println("ShotCacheTest passed");
+
+    }
+
+    /**
+     * @return the shot chosen by a fresh player, with the given cache, after missing at the cells under the symmetry
+     */
+    private static Position hunt(BoardSize size, int[] misses, int symmetry, ShotCache cache) {
+
+        ComputerPlayer player = new ComputerPlayer("Hunter", size, Game.FLEET);
+
+        player.setCache(cache);
+
+        for (int cell: misses) {
+
+            Position p = size.position(size.transform(cell, symmetry));
+
+            if (!player.getShots().contains(size.index(p))) player.shotResult(p, ShotStatus.MISS);
+
+        }
+
+        return player.chooseShot();
+
+    }
+
+    private static void check(boolean condition, String message) {
+
+        if (!condition) throw new AssertionError(message);
+
+    }
+
+}
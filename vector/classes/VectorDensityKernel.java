@@ -0,0 +1,43 @@
+package classes;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Adds placements to a density grid as many cells at a time as the processor's widest vectors allow. Needs the
+ * jdk.incubator.vector module, both to compile and to run, so it lives in its own source root and is only built by
+ * ./build.sh --vector; without it, DensityKernel.best() falls back to the scalar kernel. Integer addition is exact,
+ * so the result is identical to the scalar kernel's.
+ */
+class VectorDensityKernel implements DensityKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    public void accumulate(int[] grid, int[] starts, int length, int step) {
+
+        for (int k = 0; k < length; k++) {
+
+            int shift = k * step, c = shift, bound = shift + SPECIES.loopBound(grid.length - shift);
+
+            for (; c < bound; c += SPECIES.length()) {
+
+                IntVector.fromArray(SPECIES, grid, c).add(IntVector.fromArray(SPECIES, starts, c - shift)).intoArray(grid, c);
+
+            }
+
+            for (; c < grid.length; c++) {
+
+                grid[c] += starts[c - shift];
+
+            }
+
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+
+}